@@ -3,12 +3,14 @@ package com.blog.blogservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 博客服务启动类
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class BlogServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,138 @@
+package com.blog.blogservice.category;
+
+import com.blog.blogservice.dto.CategoryNode;
+import com.blog.blogservice.entity.Category;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 分类树快照
+ * 一次构建好整棵树、按ID和父分类的索引，构建后不再修改，刷新时整体替换。
+ * 版本号由树的内容计算，内容不变版本号就不变，可以直接作为ETag。
+ */
+public final class CategoryTree {
+
+    /**
+     * 顶级分类的父分类ID
+     */
+    public static final long ROOT_ID = 0L;
+
+    private final String version;
+    private final List<CategoryNode> roots;
+    private final Map<Long, CategoryNode> nodes;
+    private final List<Category> categories;
+    private final Map<Long, List<Category>> categoriesByParent;
+
+    private CategoryTree(String version, List<CategoryNode> roots, Map<Long, CategoryNode> nodes,
+                         List<Category> categories, Map<Long, List<Category>> categoriesByParent) {
+        this.version = version;
+        this.roots = roots;
+        this.nodes = nodes;
+        this.categories = categories;
+        this.categoriesByParent = categoriesByParent;
+    }
+
+    /**
+     * 构建分类树
+     * @param categories 所有分类，按显示顺序排列
+     * @param articleCounts 分类ID -> 直接属于该分类的文章数
+     * @param objectMapper 用于计算版本号
+     */
+    static CategoryTree build(List<Category> categories, Map<Long, Long> articleCounts,
+                              ObjectMapper objectMapper) throws JsonProcessingException {
+        Set<Long> ids = new HashSet<>();
+        for (Category category : categories) {
+            ids.add(category.getId());
+        }
+        Map<Long, List<Category>> byParent = new HashMap<>();
+        List<Category> rootCategories = new ArrayList<>();
+        for (Category category : categories) {
+            Long parentId = category.getParentId() != null ? category.getParentId() : ROOT_ID;
+            byParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(category);
+            // 父分类不存在的也作为顶级分类显示；互相引用成环的分类无法从顶级分类到达，不会进入树中
+            if (!ids.contains(parentId)) {
+                rootCategories.add(category);
+            }
+        }
+
+        Map<Long, CategoryNode> nodes = new HashMap<>();
+        List<CategoryNode> roots = new ArrayList<>(rootCategories.size());
+        for (Category category : rootCategories) {
+            roots.add(buildNode(category, byParent, articleCounts, nodes));
+        }
+
+        Map<Long, List<Category>> categoriesByParent = new HashMap<>();
+        byParent.forEach((parentId, children) -> categoriesByParent.put(parentId, List.copyOf(children)));
+
+        String version = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(roots));
+        return new CategoryTree(version, List.copyOf(roots), Map.copyOf(nodes), List.copyOf(categories),
+                Map.copyOf(categoriesByParent));
+    }
+
+    /**
+     * 自底向上构建节点，子树文章数在构建时一并汇总
+     */
+    private static CategoryNode buildNode(Category category, Map<Long, List<Category>> byParent,
+                                          Map<Long, Long> articleCounts, Map<Long, CategoryNode> nodes) {
+        List<Category> childCategories = byParent.getOrDefault(category.getId(), List.of());
+        List<CategoryNode> children = new ArrayList<>(childCategories.size());
+        long articleCount = articleCounts.getOrDefault(category.getId(), 0L);
+        long totalArticleCount = articleCount;
+        for (Category child : childCategories) {
+            CategoryNode childNode = buildNode(child, byParent, articleCounts, nodes);
+            children.add(childNode);
+            totalArticleCount += childNode.getTotalArticleCount();
+        }
+        CategoryNode node = new CategoryNode(category.getId(), category.getParentId(), category.getPath(), category.getName(),
+                category.getDescription(), category.getIcon(), category.getSort(), category.getStatus(),
+                articleCount, totalArticleCount, children);
+        nodes.put(node.getId(), node);
+        return node;
+    }
+
+    /**
+     * 快照版本号
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * 顶级分类节点
+     */
+    public List<CategoryNode> getRoots() {
+        return roots;
+    }
+
+    /**
+     * 查找以指定分类为根的子树
+     * @param id 分类ID
+     */
+    public Optional<CategoryNode> findNode(Long id) {
+        return id != null ? Optional.ofNullable(nodes.get(id)) : Optional.empty();
+    }
+
+    /**
+     * 所有分类，只读
+     */
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    /**
+     * 父分类下的直接子分类，只读
+     * @param parentId 父分类ID
+     */
+    public List<Category> getChildren(Long parentId) {
+        return categoriesByParent.getOrDefault(parentId != null ? parentId : ROOT_ID, List.of());
+    }
+}
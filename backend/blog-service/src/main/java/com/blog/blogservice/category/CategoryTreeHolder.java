@@ -0,0 +1,149 @@
+package com.blog.blogservice.category;
+
+import com.blog.blogservice.entity.Category;
+import com.blog.blogservice.repository.ArticleRepository;
+import com.blog.blogservice.repository.CategoryRepository;
+import com.blog.blogservice.repository.projection.CategoryArticleCount;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分类树快照持有者
+ * 读取直接返回当前快照，不加锁也不查库；分类写入提交后重建快照并整体替换，同时通知其他节点重建。
+ * 文章数随文章发布变化，由定时刷新兜底，内容没有变化时保留原快照，版本号保持不变。
+ */
+@Component
+public class CategoryTreeHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTreeHolder.class);
+
+    /**
+     * 分类变更通知频道
+     */
+    public static final String CHANGE_CHANNEL = "blog:category:changed";
+
+    /**
+     * 计入分类文章数的文章状态：已发布
+     */
+    private static final int PUBLISHED = 2;
+
+    /**
+     * 当前节点标识，用于忽略自己发出的变更通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicReference<CategoryTree> current = new AtomicReference<>();
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+                refresh();
+            }
+        }, new ChannelTopic(CHANGE_CHANNEL));
+    }
+
+    /**
+     * 获取当前快照，首次访问时构建
+     */
+    public CategoryTree get() {
+        CategoryTree tree = current.get();
+        if (tree == null) {
+            refresh();
+            tree = current.get();
+            if (tree == null) {
+                throw new IllegalStateException("Category tree is not available");
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * 分类变更后调用，在事务提交后重建快照，避免读到未提交的数据
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshAndPublish();
+                }
+            });
+        } else {
+            refreshAndPublish();
+        }
+    }
+
+    /**
+     * 定时重建快照，同步文章数变化
+     */
+    @Scheduled(fixedDelayString = "${blog.category.tree-refresh-interval:60000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * 重建快照，同时只有一个线程构建，保证旧的构建结果不会覆盖新的
+     */
+    public synchronized void refresh() {
+        try {
+            List<Category> categories = categoryRepository.findAll(Sort.by("sort", "id"));
+            Map<Long, Long> articleCounts = new HashMap<>();
+            for (CategoryArticleCount count : articleRepository.countGroupByCategoryId(PUBLISHED)) {
+                articleCounts.put(count.getCategoryId(), count.getArticleCount());
+            }
+            CategoryTree tree = CategoryTree.build(categories, articleCounts, objectMapper);
+            CategoryTree previous = current.get();
+            if (previous == null || !previous.getVersion().equals(tree.getVersion())) {
+                current.set(tree);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 构建失败时继续使用旧快照
+            logger.warn("Failed to rebuild category tree", e);
+        }
+    }
+
+    private void refreshAndPublish() {
+        refresh();
+        try {
+            stringRedisTemplate.convertAndSend(CHANGE_CHANNEL, nodeId);
+        } catch (RuntimeException e) {
+            // 通知失败时其他节点依靠定时刷新兜底
+            logger.warn("Failed to publish category change", e);
+        }
+    }
+}
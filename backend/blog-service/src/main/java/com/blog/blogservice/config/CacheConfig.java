@@ -1,18 +1,30 @@
 package com.blog.blogservice.config;
 
+import com.blog.blogservice.entity.Article;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,35 +48,89 @@ public class CacheConfig {
     @Value("${cache.tag}")
     private long tagTtl;
 
+    @Value("${cache.comment-thread:600}")
+    private long commentThreadTtl;
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(jsonRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(jsonRedisSerializer());
         template.afterPropertiesSet();
         return template;
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     LocalCacheProperties localCacheProperties,
+                                     StringRedisTemplate stringRedisTemplate) {
         RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(defaultTtl))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonRedisSerializer()))
                 .disableCachingNullValues();
 
+        // 文章详情固定为Article类型，不写入类型信息，标签集合反序列化为普通HashSet
+        Jackson2JsonRedisSerializer<Article> articleSerializer = new Jackson2JsonRedisSerializer<>(cacheObjectMapper(), Article.class);
+
         // 为不同的缓存区域设置不同的过期时间
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        cacheConfigurations.put("articles", defaultCacheConfig.entryTtl(Duration.ofSeconds(articleTtl)));
+        cacheConfigurations.put("articles", defaultCacheConfig.entryTtl(Duration.ofSeconds(articleTtl))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(articleSerializer)));
         cacheConfigurations.put("categories", defaultCacheConfig.entryTtl(Duration.ofSeconds(categoryTtl)));
         cacheConfigurations.put("tags", defaultCacheConfig.entryTtl(Duration.ofSeconds(tagTtl)));
+        cacheConfigurations.put("commentThreads", defaultCacheConfig.entryTtl(Duration.ofSeconds(commentThreadTtl)));
+
+        // 开启命中统计，由Actuator以cache.gets等指标暴露
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory)
+                .withStatisticsCollector(CacheStatisticsCollector.create());
+
+        // Redis作为二级缓存，不单独注册为Bean
+        SingleFlightRedisCacheManager redisCacheManager =
+                new SingleFlightRedisCacheManager(cacheWriter, defaultCacheConfig, cacheConfigurations);
+        redisCacheManager.afterPropertiesSet();
+
+        TwoLevelCacheManager cacheManager =
+                new TwoLevelCacheManager(redisCacheManager, localCacheProperties, stringRedisTemplate);
+        // 缓存的写入和清除推迟到事务提交之后，避免并发读在提交前回填旧数据
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    /**
+     * 订阅一级缓存失效通知
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener((message, pattern) ->
+                            twoLevelCacheManager.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        }
+        return container;
+    }
+
+    /**
+     * 带类型信息的JSON序列化器，支持Java 8日期时间类型
+     */
+    private GenericJackson2JsonRedisSerializer jsonRedisSerializer() {
+        ObjectMapper objectMapper = cacheObjectMapper();
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
 
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(defaultCacheConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .build();
+    private ObjectMapper cacheObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return objectMapper;
     }
-}
\ No newline at end of file
+}
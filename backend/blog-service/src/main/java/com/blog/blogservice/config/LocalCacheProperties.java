@@ -0,0 +1,52 @@
+package com.blog.blogservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 本地一级缓存配置
+ * 按缓存区域配置容量和过期时间，未配置的区域只使用Redis
+ */
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class LocalCacheProperties {
+
+    private Map<String, Region> local = new HashMap<>();
+
+    public static class Region {
+        /**
+         * 最大条目数
+         */
+        private long maxSize = 1000;
+
+        /**
+         * 写入后过期时间（秒）
+         */
+        private long ttl = 60;
+
+        // getters and setters
+        public long getMaxSize() {
+            return maxSize;
+        }
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+        public long getTtl() {
+            return ttl;
+        }
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    // getters and setters
+    public Map<String, Region> getLocal() {
+        return local;
+    }
+    public void setLocal(Map<String, Region> local) {
+        this.local = local;
+    }
+}
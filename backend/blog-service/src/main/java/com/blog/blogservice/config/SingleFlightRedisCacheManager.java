@@ -0,0 +1,32 @@
+package com.blog.blogservice.config;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * 创建单飞加载Redis缓存的缓存管理器
+ */
+public class SingleFlightRedisCacheManager extends RedisCacheManager {
+
+    private final RedisCacheWriter cacheWriter;
+    private final RedisCacheConfiguration defaultCacheConfiguration;
+
+    public SingleFlightRedisCacheManager(RedisCacheWriter cacheWriter,
+                                         RedisCacheConfiguration defaultCacheConfiguration,
+                                         Map<String, RedisCacheConfiguration> initialCacheConfigurations) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
+        this.cacheWriter = cacheWriter;
+        this.defaultCacheConfiguration = defaultCacheConfiguration;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, @Nullable RedisCacheConfiguration cacheConfiguration) {
+        return new SingleFlightRedisCache(name, cacheWriter,
+                cacheConfiguration != null ? cacheConfiguration : defaultCacheConfiguration);
+    }
+}
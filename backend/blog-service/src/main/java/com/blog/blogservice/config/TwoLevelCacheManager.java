@@ -0,0 +1,129 @@
+package com.blog.blogservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 两级缓存管理器
+ * 配置了本地缓存的区域使用Caffeine + Redis两级缓存，其余区域直接使用Redis缓存
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    /**
+     * 一级缓存失效通知频道
+     */
+    public static final String INVALIDATION_CHANNEL = "blog:cache:invalidation";
+
+    private static final String SEPARATOR = "|";
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    /**
+     * 当前节点标识，用于忽略自己发出的失效通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisCacheManager redisCacheManager;
+    private final LocalCacheProperties localCacheProperties;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                LocalCacheProperties localCacheProperties,
+                                StringRedisTemplate stringRedisTemplate) {
+        this.redisCacheManager = redisCacheManager;
+        this.localCacheProperties = localCacheProperties;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : redisCacheManager.getCacheNames()) {
+            Cache cache = createCache(name);
+            if (cache != null) {
+                caches.add(cache);
+            }
+        }
+        return caches;
+    }
+
+    @Override
+    @Nullable
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    @Nullable
+    private Cache createCache(String name) {
+        RedisCache remoteCache = (RedisCache) redisCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        LocalCacheProperties.Region region = localCacheProperties.getLocal().get(name);
+        if (region == null) {
+            return remoteCache;
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(region.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(region.getTtl()))
+                .recordStats()
+                .build();
+        return new TwoLevelCache(name, localCache, remoteCache, this);
+    }
+
+    /**
+     * 通知其他节点清除一级缓存中的指定条目
+     */
+    void publishEvict(String cacheName, String key) {
+        publish(nodeId + SEPARATOR + EVICT + SEPARATOR + cacheName + SEPARATOR + key);
+    }
+
+    /**
+     * 通知其他节点清空指定区域的一级缓存
+     */
+    void publishClear(String cacheName) {
+        publish(nodeId + SEPARATOR + CLEAR + SEPARATOR + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            // 通知失败时其他节点的一级缓存依靠过期时间兜底
+            logger.warn("Failed to publish cache invalidation {}", message, e);
+        }
+    }
+
+    /**
+     * 处理其他节点发出的失效通知
+     */
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\\" + SEPARATOR, 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        Cache cache = lookupCache(parts[2]);
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            if (CLEAR.equals(parts[1])) {
+                twoLevelCache.clearLocal();
+            } else if (EVICT.equals(parts[1]) && parts.length == 4) {
+                twoLevelCache.evictLocal(parts[3]);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.blog.blogservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * 两级缓存指标
+ * 命中数为一级与二级命中之和，未命中数以二级缓存为准，另外单独暴露一级缓存命中数
+ */
+@Component
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return new TwoLevelCacheMetrics(cache, tags);
+    }
+
+    static class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+        private final TwoLevelCache cache;
+
+        TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+            super(cache, cache.getName(), tags);
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long size() {
+            return cache.getLocalCache().estimatedSize();
+        }
+
+        @Override
+        protected long hitCount() {
+            return cache.getLocalCache().stats().hitCount() + remoteStatistics().getHits();
+        }
+
+        @Override
+        protected Long missCount() {
+            return remoteStatistics().getMisses();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return cache.getLocalCache().stats().evictionCount();
+        }
+
+        @Override
+        protected long putCount() {
+            return remoteStatistics().getPuts();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            Gauge.builder("cache.local.hits", cache, c -> c.getLocalCache().stats().hitCount())
+                    .tags(getTagsWithCacheName())
+                    .description("The number of times cache lookup methods have returned a value from the local cache")
+                    .register(registry);
+        }
+
+        private CacheStatistics remoteStatistics() {
+            return cache.getRemoteCache().getStatistics();
+        }
+    }
+}
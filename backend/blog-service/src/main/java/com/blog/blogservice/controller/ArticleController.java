@@ -1,7 +1,11 @@
 package com.blog.blogservice.controller;
 
+import com.blog.blogservice.dto.ArticleSearchResult;
 import com.blog.blogservice.entity.Article;
+import com.blog.blogservice.repository.projection.ArticleSummary;
 import com.blog.blogservice.service.ArticleService;
+import com.blog.blogservice.utils.CursorPage;
+import com.blog.blogservice.utils.PageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -65,11 +69,11 @@ public class ArticleController {
      * 获取用户的文章列表
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<Article>> getArticlesByUserId(@PathVariable Long userId,
+    public ResponseEntity<Page<ArticleSummary>> getArticlesByUserId(@PathVariable Long userId,
                                                             @RequestParam(defaultValue = "0") int page,
                                                             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedTime"));
-        Page<Article> articles = articleService.getArticlesByUserId(userId, pageable);
+        Page<ArticleSummary> articles = articleService.getArticlesByUserId(userId, pageable);
         return ResponseEntity.ok(articles);
     }
 
@@ -77,11 +81,11 @@ public class ArticleController {
      * 获取分类下的文章列表
      */
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<Article>> getArticlesByCategoryId(@PathVariable Long categoryId,
+    public ResponseEntity<Page<ArticleSummary>> getArticlesByCategoryId(@PathVariable Long categoryId,
                                                                 @RequestParam(defaultValue = "0") int page,
                                                                 @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedTime"));
-        Page<Article> articles = articleService.getArticlesByCategoryId(categoryId, pageable);
+        Page<ArticleSummary> articles = articleService.getArticlesByCategoryId(categoryId, pageable);
         return ResponseEntity.ok(articles);
     }
 
@@ -89,10 +93,10 @@ public class ArticleController {
      * 获取热门文章
      */
     @GetMapping("/hot")
-    public ResponseEntity<Page<Article>> getHotArticles(@RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Page<ArticleSummary>> getHotArticles(@RequestParam(defaultValue = "0") int page,
                                                        @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Article> articles = articleService.getHotArticles(pageable);
+        Page<ArticleSummary> articles = articleService.getHotArticles(pageable);
         return ResponseEntity.ok(articles);
     }
 
@@ -100,10 +104,52 @@ public class ArticleController {
      * 获取推荐文章
      */
     @GetMapping("/recommend")
-    public ResponseEntity<Page<Article>> getRecommendArticles(@RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Page<ArticleSummary>> getRecommendArticles(@RequestParam(defaultValue = "0") int page,
                                                              @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedTime"));
-        Page<Article> articles = articleService.getRecommendArticles(pageable);
+        Page<ArticleSummary> articles = articleService.getRecommendArticles(pageable);
+        return ResponseEntity.ok(articles);
+    }
+
+    /**
+     * 按游标获取用户的文章列表
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<ArticleSummary>> getArticlesByUserIdByCursor(@PathVariable Long userId,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "10") int size) {
+        CursorPage<ArticleSummary> articles = articleService.getArticlesByUserId(userId, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(articles);
+    }
+
+    /**
+     * 按游标获取分类下的文章列表
+     */
+    @GetMapping("/category/{categoryId}/cursor")
+    public ResponseEntity<CursorPage<ArticleSummary>> getArticlesByCategoryIdByCursor(@PathVariable Long categoryId,
+                                                                                      @RequestParam(required = false) String cursor,
+                                                                                      @RequestParam(defaultValue = "10") int size) {
+        CursorPage<ArticleSummary> articles = articleService.getArticlesByCategoryId(categoryId, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(articles);
+    }
+
+    /**
+     * 按游标获取热门文章
+     */
+    @GetMapping("/hot/cursor")
+    public ResponseEntity<CursorPage<ArticleSummary>> getHotArticlesByCursor(@RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "10") int size) {
+        CursorPage<ArticleSummary> articles = articleService.getHotArticles(cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(articles);
+    }
+
+    /**
+     * 按游标获取推荐文章
+     */
+    @GetMapping("/recommend/cursor")
+    public ResponseEntity<CursorPage<ArticleSummary>> getRecommendArticlesByCursor(@RequestParam(required = false) String cursor,
+                                                                                   @RequestParam(defaultValue = "10") int size) {
+        CursorPage<ArticleSummary> articles = articleService.getRecommendArticles(cursor, PageUtils.checkSize(size));
         return ResponseEntity.ok(articles);
     }
 
@@ -111,8 +157,8 @@ public class ArticleController {
      * 获取置顶文章
      */
     @GetMapping("/top")
-    public ResponseEntity<List<Article>> getTopArticles() {
-        List<Article> articles = articleService.getTopArticles();
+    public ResponseEntity<List<ArticleSummary>> getTopArticles() {
+        List<ArticleSummary> articles = articleService.getTopArticles();
         return ResponseEntity.ok(articles);
     }
 
@@ -120,11 +166,22 @@ public class ArticleController {
      * 搜索文章
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<Article>> searchArticles(@RequestParam String keyword,
-                                                       @RequestParam(defaultValue = "0") int page,
-                                                       @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedTime"));
-        Page<Article> articles = articleService.searchArticles(keyword, pageable);
+    public ResponseEntity<Page<ArticleSearchResult>> searchArticles(@RequestParam String keyword,
+                                                                    @RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(defaultValue = "10") int size) {
+        // 按相关度排序
+        Pageable pageable = PageRequest.of(page, size);
+        Page<ArticleSearchResult> articles = articleService.searchArticles(keyword, pageable);
+        return ResponseEntity.ok(articles);
+    }
+
+    /**
+     * 获取相关文章
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ArticleSummary>> getRelatedArticles(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "5") int limit) {
+        List<ArticleSummary> articles = articleService.getRelatedArticles(id, PageUtils.checkSize(limit));
         return ResponseEntity.ok(articles);
     }
 
@@ -1,11 +1,14 @@
 package com.blog.blogservice.controller;
 
+import com.blog.blogservice.category.CategoryTree;
+import com.blog.blogservice.dto.CategoryNode;
 import com.blog.blogservice.entity.Category;
 import com.blog.blogservice.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -73,6 +76,32 @@ public class CategoryController {
         return ResponseEntity.ok(categories);
     }
 
+    /**
+     * 获取分类树
+     * 以快照版本号作为ETag，客户端携带If-None-Match且未变化时返回304
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryNode>> getCategoryTree(WebRequest request) {
+        CategoryTree tree = categoryService.getCategoryTree();
+        if (request.checkNotModified(tree.getVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tree.getVersion()).build();
+        }
+        return ResponseEntity.ok().eTag(tree.getVersion()).body(tree.getRoots());
+    }
+
+    /**
+     * 获取以指定分类为根的子树
+     */
+    @GetMapping("/tree/{id}")
+    public ResponseEntity<CategoryNode> getCategorySubtree(@PathVariable Long id, WebRequest request) {
+        CategoryTree tree = categoryService.getCategoryTree();
+        CategoryNode node = tree.findNode(id).orElseThrow(() -> new RuntimeException("Category not found"));
+        if (request.checkNotModified(tree.getVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tree.getVersion()).build();
+        }
+        return ResponseEntity.ok().eTag(tree.getVersion()).body(node);
+    }
+
     /**
      * 根据分类名称获取分类
      */
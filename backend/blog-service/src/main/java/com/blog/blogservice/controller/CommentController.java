@@ -1,7 +1,10 @@
 package com.blog.blogservice.controller;
 
+import com.blog.blogservice.dto.CommentThread;
 import com.blog.blogservice.entity.Comment;
 import com.blog.blogservice.service.CommentService;
+import com.blog.blogservice.utils.CursorPage;
+import com.blog.blogservice.utils.PageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -71,6 +74,15 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    /**
+     * 获取文章的完整评论树
+     */
+    @GetMapping("/article/{articleId}/thread")
+    public ResponseEntity<List<CommentThread>> getCommentThread(@PathVariable Long articleId) {
+        List<CommentThread> thread = commentService.getCommentThread(articleId);
+        return ResponseEntity.ok(thread);
+    }
+
     /**
      * 获取父评论的子评论
      */
@@ -92,6 +104,28 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    /**
+     * 按游标获取文章的评论列表
+     */
+    @GetMapping("/article/{articleId}/cursor")
+    public ResponseEntity<CursorPage<Comment>> getCommentsByArticleIdByCursor(@PathVariable Long articleId,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(defaultValue = "10") int size) {
+        CursorPage<Comment> comments = commentService.getCommentsByArticleId(articleId, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(comments);
+    }
+
+    /**
+     * 按游标获取用户的评论列表
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<Comment>> getCommentsByUserIdByCursor(@PathVariable Long userId,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "10") int size) {
+        CursorPage<Comment> comments = commentService.getCommentsByUserId(userId, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(comments);
+    }
+
     /**
      * 审核评论
      */
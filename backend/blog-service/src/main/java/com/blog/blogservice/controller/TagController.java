@@ -2,6 +2,7 @@ package com.blog.blogservice.controller;
 
 import com.blog.blogservice.entity.Tag;
 import com.blog.blogservice.service.TagService;
+import com.blog.blogservice.utils.PageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -82,6 +83,16 @@ public class TagController {
         return ResponseEntity.ok(tags);
     }
 
+    /**
+     * 获取经常与该标签同时使用的标签
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<Tag>> getRelatedTags(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        List<Tag> tags = tagService.getRelatedTags(id, PageUtils.checkSize(limit));
+        return ResponseEntity.ok(tags);
+    }
+
     /**
      * 检查标签名称是否存在
      */
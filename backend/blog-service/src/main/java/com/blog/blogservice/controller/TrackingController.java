@@ -1,16 +1,32 @@
 package com.blog.blogservice.controller;
 
+import com.blog.blogservice.dto.SessionDailyStats;
+import com.blog.blogservice.dto.TrackingEventRequest;
 import com.blog.blogservice.entity.TrackingEvent;
 import com.blog.blogservice.service.TrackingService;
+import com.blog.blogservice.utils.CursorPage;
+import com.blog.blogservice.utils.PageUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,11 +36,23 @@ import java.util.Map;
 @RequestMapping("/api/tracking")
 public class TrackingController {
 
+    /**
+     * 批量上报时每次交给服务层的事件数
+     */
+    private static final int BATCH_CHUNK_SIZE = 100;
+
     @Autowired
     private TrackingService trackingService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${blog.tracking.max-batch-events:1000}")
+    private int maxBatchEvents;
+
     /**
      * 记录自定义事件
+     * 事件异步写入，返回202
      */
     @PostMapping("/events")
     public ResponseEntity<Void> trackEvent(@RequestParam String eventName,
@@ -32,7 +60,40 @@ public class TrackingController {
                                           @RequestParam(required = false) Long articleId,
                                           @RequestBody(required = false) Map<String, Object> properties) {
         trackingService.trackEvent(eventName, userId, articleId, properties);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * 批量记录事件
+     * 请求体为JSON数组或换行分隔的JSON（NDJSON），边读边分块入队，不缓存整个请求体
+     */
+    @PostMapping(value = "/events/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Map<String, Integer>> trackEvents(HttpServletRequest request) throws IOException {
+        int received = 0;
+        int accepted = 0;
+        List<TrackingEventRequest> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        ObjectReader reader = objectMapper.readerFor(TrackingEventRequest.class);
+        try (MappingIterator<TrackingEventRequest> events = reader.readValues(request.getInputStream())) {
+            // 超过单批上限的事件不再读取
+            while (received < maxBatchEvents && events.hasNextValue()) {
+                chunk.add(events.nextValue());
+                received++;
+                if (chunk.size() == BATCH_CHUNK_SIZE) {
+                    accepted += trackingService.trackEvents(chunk);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid tracking event batch: " + e.getOriginalMessage(), e);
+        }
+        if (!chunk.isEmpty()) {
+            accepted += trackingService.trackEvents(chunk);
+        }
+
+        Map<String, Integer> result = new HashMap<>();
+        result.put("received", received);
+        result.put("accepted", accepted);
+        return ResponseEntity.accepted().body(result);
     }
 
     /**
@@ -43,7 +104,7 @@ public class TrackingController {
                                             @RequestParam(required = false) Long userId,
                                             @RequestParam(required = false, defaultValue = "0") Long duration) {
         trackingService.trackPageView(pageUrl, userId, duration);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().build();
     }
 
     /**
@@ -54,7 +115,7 @@ public class TrackingController {
                                                @RequestParam(required = false) Long userId,
                                                @RequestParam(required = false, defaultValue = "0") Long duration) {
         trackingService.trackArticleRead(articleId, userId, duration);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().build();
     }
 
     /**
@@ -106,6 +167,51 @@ public class TrackingController {
         return ResponseEntity.ok(events);
     }
 
+    /**
+     * 按游标查询指定名称的事件列表
+     */
+    @GetMapping("/events/name/{eventName}/cursor")
+    public ResponseEntity<CursorPage<TrackingEvent>> getEventsByEventNameByCursor(@PathVariable String eventName,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TrackingEvent> events = trackingService.getEventsByEventName(eventName, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * 按游标查询用户的事件列表
+     */
+    @GetMapping("/events/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<TrackingEvent>> getEventsByUserIdByCursor(@PathVariable Long userId,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TrackingEvent> events = trackingService.getEventsByUserId(userId, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * 按游标查询文章的事件列表
+     */
+    @GetMapping("/events/article/{articleId}/cursor")
+    public ResponseEntity<CursorPage<TrackingEvent>> getEventsByArticleIdByCursor(@PathVariable Long articleId,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TrackingEvent> events = trackingService.getEventsByArticleId(articleId, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * 按游标查询时间范围内的事件列表
+     */
+    @GetMapping("/events/time-range/cursor")
+    public ResponseEntity<CursorPage<TrackingEvent>> getEventsByTimeRangeByCursor(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+                                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TrackingEvent> events = trackingService.getEventsByTimeRange(startTime, endTime, cursor, PageUtils.checkSize(size));
+        return ResponseEntity.ok(events);
+    }
+
     /**
      * 统计指定时间范围内的事件数量
      */
@@ -145,4 +251,49 @@ public class TrackingController {
         Map<String, Long> activity = trackingService.getUserActivity(days);
         return ResponseEntity.ok(activity);
     }
+
+    /**
+     * 获取全站每日独立访客数
+     */
+    @GetMapping("/stats/unique-visitors/daily")
+    public ResponseEntity<Map<String, Long>> getDailyUniqueVisitors(@RequestParam(defaultValue = "7") int days) {
+        Map<String, Long> visitors = trackingService.getDailyUniqueVisitors(days);
+        return ResponseEntity.ok(visitors);
+    }
+
+    /**
+     * 获取全站在时间窗口内的独立访客数
+     */
+    @GetMapping("/stats/unique-visitors")
+    public ResponseEntity<Long> getUniqueVisitors(@RequestParam(defaultValue = "7") int days) {
+        Long visitors = trackingService.getUniqueVisitors(days);
+        return ResponseEntity.ok(visitors);
+    }
+
+    /**
+     * 获取文章在时间窗口内的独立访客数
+     */
+    @GetMapping("/stats/articles/{articleId}/unique-visitors")
+    public ResponseEntity<Long> getArticleUniqueVisitors(@PathVariable Long articleId,
+                                                         @RequestParam(defaultValue = "7") int days) {
+        Long visitors = trackingService.getArticleUniqueVisitors(articleId, days);
+        return ResponseEntity.ok(visitors);
+    }
+
+    /**
+     * 获取会话统计
+     */
+    @GetMapping("/stats/sessions")
+    public ResponseEntity<List<SessionDailyStats>> getSessionStats(@RequestParam(defaultValue = "7") int days) {
+        List<SessionDailyStats> stats = trackingService.getSessionStats(days);
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * 订阅实时活动（Server-Sent Events），每秒推送一次事件增量、热门文章和活跃访客数
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeLiveActivity() {
+        return trackingService.subscribeLiveActivity();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.blog.blogservice.counter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 文章评论量校准
+ * 评论量平时按增量维护，定时用实际的审核通过评论数修正偏差，启动时也执行一次以初始化历史数据。
+ * 多个实例中同时只有一个执行校准。校准前只能刷写本实例的增量，其他实例缓冲区中尚未刷写的增量
+ * （最多一个刷写周期）以及本实例刷写后到校准语句开始前提交的增量，会在校准后再次累加，由下一次校准修正。
+ */
+@Component
+public class CommentCountReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentCountReconciler.class);
+
+    /**
+     * 只更新计数不一致的文章
+     */
+    private static final String RECONCILE_SQL = "UPDATE blog_article a SET comment_count = s.actual "
+            + "FROM (SELECT b.id, COUNT(c.id) AS actual FROM blog_article b "
+            + "LEFT JOIN blog_comment c ON c.article_id = b.id AND c.status = 1 GROUP BY b.id) s "
+            + "WHERE a.id = s.id AND a.comment_count IS DISTINCT FROM s.actual";
+
+    /**
+     * 多个实例同时触发时只允许一个执行校准，其他实例直接跳过
+     */
+    private static final long ADVISORY_LOCK_KEY = 0x636d_7463_6f75_6e74L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CounterFlusher counterFlusher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    /**
+     * 校准所有文章的评论量
+     */
+    @Scheduled(cron = "${blog.counter.comment-reconcile-cron:0 15 4 * * *}")
+    public void reconcile() {
+        // 先落库已提交的增量，否则校准后再刷写会重复计算
+        counterFlusher.flush();
+        try {
+            Integer repaired = new TransactionTemplate(transactionManager).execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                return Boolean.TRUE.equals(locked) ? jdbcTemplate.update(RECONCILE_SQL) : null;
+            });
+            if (repaired == null) {
+                logger.debug("其他实例正在校准文章评论量，本次跳过");
+            } else if (repaired > 0) {
+                logger.info("已校准 {} 篇文章的评论量", repaired);
+            }
+        } catch (DataAccessException e) {
+            logger.error("文章评论量校准失败", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.blog.blogservice.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 计数缓冲区
+ * 按ID在内存中累加增量，由定时任务统一取出后批量写库
+ */
+public class CounterBuffer {
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 计数加一
+     */
+    public void increment(Long id) {
+        add(id, 1L);
+    }
+
+    /**
+     * 累加增量
+     */
+    public void add(Long id, long delta) {
+        LongAdder adder = counters.get(id);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(id, key -> new LongAdder());
+        }
+        adder.add(delta);
+        // drain可能已经移除了这个累加器，把没被取走的增量转到新的累加器上；
+        // 双方都用sumThenReset取值，同一笔增量只会被取走一次
+        while (counters.get(id) != adder) {
+            long leftover = adder.sumThenReset();
+            if (leftover == 0) {
+                return;
+            }
+            adder = counters.computeIfAbsent(id, key -> new LongAdder());
+            adder.add(leftover);
+        }
+    }
+
+    /**
+     * 获取尚未刷写的增量
+     */
+    public long pending(Long id) {
+        LongAdder adder = counters.get(id);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * 取出并清空所有增量
+     * 上个周期没有增量的ID会被移除，避免缓冲区无限增长
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            } else if (counters.remove(entry.getKey(), entry.getValue())) {
+                // 移除后再检查一次，收回移除瞬间并发写入的增量
+                long late = entry.getValue().sumThenReset();
+                if (late != 0) {
+                    deltas.put(entry.getKey(), late);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 将刷写失败的增量放回缓冲区，等待下次重试
+     */
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    /**
+     * 缓冲区是否为空
+     */
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+package com.blog.blogservice.counter;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 计数刷写器
+ * 阅读量、评论量（以及开启合并模式后的点赞量）先写入内存缓冲区，
+ * 定时以批量UPDATE语句落库，停机时清空缓冲区
+ */
+@Component
+public class CounterFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterFlusher.class);
+
+    private static final String VIEW_COUNT_SQL = "UPDATE blog_article SET view_count = view_count + ? WHERE id = ?";
+    private static final String ARTICLE_LIKE_COUNT_SQL = "UPDATE blog_article SET like_count = like_count + ? WHERE id = ?";
+    private static final String COMMENT_LIKE_COUNT_SQL = "UPDATE blog_comment SET like_count = like_count + ? WHERE id = ?";
+    private static final String COMMENT_COUNT_SQL = "UPDATE blog_article SET comment_count = GREATEST(COALESCE(comment_count, 0) + ?, 0) WHERE id = ?";
+
+    private final CounterBuffer viewCounts = new CounterBuffer();
+    private final CounterBuffer articleLikeCounts = new CounterBuffer();
+    private final CounterBuffer commentLikeCounts = new CounterBuffer();
+    private final CounterBuffer commentCounts = new CounterBuffer();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 是否合并点赞：开启后同一刷写周期内对同一ID的点赞合并为一条UPDATE
+     */
+    @Value("${blog.counter.like-coalescing:false}")
+    private boolean likeCoalescing;
+
+    /**
+     * 文章阅读量加一
+     * @param articleId 文章ID
+     */
+    public void incrementViewCount(Long articleId) {
+        viewCounts.increment(articleId);
+    }
+
+    /**
+     * 文章点赞量加一（合并模式）
+     * @param articleId 文章ID
+     */
+    public void incrementArticleLikeCount(Long articleId) {
+        articleLikeCounts.increment(articleId);
+    }
+
+    /**
+     * 评论点赞量加一（合并模式）
+     * @param commentId 评论ID
+     */
+    public void incrementCommentLikeCount(Long commentId) {
+        commentLikeCounts.increment(commentId);
+    }
+
+    /**
+     * 调整文章评论量
+     * 在事务中调用时，增量在事务提交后才进入缓冲区，回滚则丢弃
+     * @param articleId 文章ID
+     * @param delta 增量，可以为负
+     */
+    public void addCommentCount(Long articleId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    commentCounts.add(articleId, delta);
+                }
+            });
+        } else {
+            commentCounts.add(articleId, delta);
+        }
+    }
+
+    /**
+     * 是否开启点赞合并模式
+     */
+    public boolean isLikeCoalescing() {
+        return likeCoalescing;
+    }
+
+    /**
+     * 定时刷写缓冲区中的增量
+     */
+    @Scheduled(fixedDelayString = "${blog.counter.flush-interval:5000}")
+    public void flush() {
+        flush(viewCounts, VIEW_COUNT_SQL);
+        flush(articleLikeCounts, ARTICLE_LIKE_COUNT_SQL);
+        flush(commentLikeCounts, COMMENT_LIKE_COUNT_SQL);
+        flush(commentCounts, COMMENT_COUNT_SQL);
+    }
+
+    /**
+     * 停机前刷写剩余增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        logger.info("应用停止，刷写剩余计数增量");
+        flush();
+    }
+
+    private synchronized void flush(CounterBuffer buffer, String sql) {
+        Map<Long, Long> deltas = buffer.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // 按ID排序，多实例同时刷写时按相同顺序加行锁，避免死锁
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((id, delta) -> batchArgs.add(new Object[]{delta, id}));
+        try {
+            jdbcTemplate.batchUpdate(sql, batchArgs);
+            logger.debug("已刷写 {} 条计数增量", batchArgs.size());
+        } catch (DataAccessException e) {
+            logger.error("计数增量刷写失败，{} 条增量将在下次重试", batchArgs.size(), e);
+            buffer.restore(deltas);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.blog.blogservice.dto;
+
+import com.blog.blogservice.repository.projection.ArticleSummary;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * 文章搜索结果
+ * 在文章列表字段的基础上附带相关度和高亮片段
+ */
+public class ArticleSearchResult {
+
+    @JsonUnwrapped
+    private final ArticleSummary article;
+
+    /**
+     * 相关度
+     */
+    private final Double rank;
+
+    /**
+     * 高亮后的标题，已做HTML转义，只包含 mark 标签
+     */
+    private final String titleHighlight;
+
+    /**
+     * 摘要和正文中的高亮片段，已做HTML转义，只包含 mark 标签
+     */
+    private final String contentHighlight;
+
+    public ArticleSearchResult(ArticleSummary article, Double rank, String titleHighlight, String contentHighlight) {
+        this.article = article;
+        this.rank = rank;
+        this.titleHighlight = titleHighlight;
+        this.contentHighlight = contentHighlight;
+    }
+
+    // getters
+    public ArticleSummary getArticle() {
+        return article;
+    }
+
+    public Double getRank() {
+        return rank;
+    }
+
+    public String getTitleHighlight() {
+        return titleHighlight;
+    }
+
+    public String getContentHighlight() {
+        return contentHighlight;
+    }
+}
@@ -0,0 +1,104 @@
+package com.blog.blogservice.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 分类树节点
+ * 构建完成后不再修改，可以被多个线程直接共享
+ */
+public class CategoryNode implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final Long parentId;
+
+    /**
+     * 分类路径，如 /1/5/12/
+     */
+    private final String path;
+
+    private final String name;
+
+    private final String description;
+
+    private final String icon;
+
+    private final Integer sort;
+
+    private final Integer status;
+
+    /**
+     * 直接属于该分类的已发布文章数
+     */
+    private final long articleCount;
+
+    /**
+     * 该分类及所有子分类的已发布文章数
+     */
+    private final long totalArticleCount;
+
+    private final List<CategoryNode> children;
+
+    public CategoryNode(Long id, Long parentId, String path, String name, String description, String icon,
+                        Integer sort, Integer status, long articleCount, long totalArticleCount,
+                        List<CategoryNode> children) {
+        this.id = id;
+        this.parentId = parentId;
+        this.path = path;
+        this.name = name;
+        this.description = description;
+        this.icon = icon;
+        this.sort = sort;
+        this.status = status;
+        this.articleCount = articleCount;
+        this.totalArticleCount = totalArticleCount;
+        this.children = List.copyOf(children);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public Integer getSort() {
+        return sort;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public long getArticleCount() {
+        return articleCount;
+    }
+
+    public long getTotalArticleCount() {
+        return totalArticleCount;
+    }
+
+    public List<CategoryNode> getChildren() {
+        return children;
+    }
+}
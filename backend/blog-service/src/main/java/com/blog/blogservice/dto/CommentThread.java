@@ -0,0 +1,121 @@
+package com.blog.blogservice.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 评论树节点
+ * 只包含展示需要的字段，不包含邮箱等个人信息
+ */
+public class CommentThread implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    /**
+     * 实际回复的评论ID，被折叠到上层显示时与所在节点的父评论不同
+     */
+    private Long parentId;
+
+    /**
+     * 显示层级，一级评论为1
+     */
+    private Integer depth;
+
+    private Long userId;
+
+    private String nickname;
+
+    private String avatar;
+
+    private String content;
+
+    private Integer likeCount;
+
+    private LocalDateTime createdTime;
+
+    private List<CommentThread> replies = new ArrayList<>();
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public void setNickname(String nickname) {
+        this.nickname = nickname;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public void setAvatar(String avatar) {
+        this.avatar = avatar;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public LocalDateTime getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(LocalDateTime createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public List<CommentThread> getReplies() {
+        return replies;
+    }
+
+    public void setReplies(List<CommentThread> replies) {
+        this.replies = replies;
+    }
+}
@@ -0,0 +1,63 @@
+package com.blog.blogservice.dto;
+
+import java.util.Map;
+
+/**
+ * 实时活动推送内容，统计的是上一秒内写入的事件
+ */
+public class LiveActivity {
+
+    /**
+     * 统计区间的结束时间（毫秒时间戳）
+     */
+    private final long timestamp;
+
+    /**
+     * 事件总数
+     */
+    private final long totalEvents;
+
+    /**
+     * 事件名称 -> 数量
+     */
+    private final Map<String, Long> events;
+
+    /**
+     * 文章ID -> 事件数，按数量降序
+     */
+    private final Map<Long, Long> topArticles;
+
+    /**
+     * 活跃访客数
+     */
+    private final int activeUsers;
+
+    public LiveActivity(long timestamp, long totalEvents, Map<String, Long> events, Map<Long, Long> topArticles, int activeUsers) {
+        this.timestamp = timestamp;
+        this.totalEvents = totalEvents;
+        this.events = events;
+        this.topArticles = topArticles;
+        this.activeUsers = activeUsers;
+    }
+
+    // getters
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTotalEvents() {
+        return totalEvents;
+    }
+
+    public Map<String, Long> getEvents() {
+        return events;
+    }
+
+    public Map<Long, Long> getTopArticles() {
+        return topArticles;
+    }
+
+    public int getActiveUsers() {
+        return activeUsers;
+    }
+}
@@ -0,0 +1,70 @@
+package com.blog.blogservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 会话按天统计
+ */
+public class SessionDailyStats {
+
+    /**
+     * 日期（按会话开始时间）
+     */
+    private final LocalDate date;
+
+    /**
+     * 会话数
+     */
+    private final Long sessions;
+
+    /**
+     * 跳出的会话数
+     */
+    private final Long bounces;
+
+    /**
+     * 平均会话时长（秒）
+     */
+    private final Double avgDurationSeconds;
+
+    /**
+     * 平均页面访问次数
+     */
+    private final Double avgPageCount;
+
+    public SessionDailyStats(LocalDate date, Long sessions, Long bounces, Double avgDurationSeconds, Double avgPageCount) {
+        this.date = date;
+        this.sessions = sessions;
+        this.bounces = bounces;
+        this.avgDurationSeconds = avgDurationSeconds;
+        this.avgPageCount = avgPageCount;
+    }
+
+    // getters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Long getSessions() {
+        return sessions;
+    }
+
+    public Long getBounces() {
+        return bounces;
+    }
+
+    public Double getAvgDurationSeconds() {
+        return avgDurationSeconds;
+    }
+
+    public Double getAvgPageCount() {
+        return avgPageCount;
+    }
+
+    /**
+     * 跳出率
+     */
+    public Double getBounceRate() {
+        return sessions == 0 ? 0.0 : bounces.doubleValue() / sessions;
+    }
+}
@@ -0,0 +1,115 @@
+package com.blog.blogservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 批量上报中的单个埋点事件
+ */
+public class TrackingEventRequest {
+
+    /**
+     * 事件名称
+     */
+    private String eventName;
+
+    /**
+     * 用户ID（可选）
+     */
+    private Long userId;
+
+    /**
+     * 文章ID（可选）
+     */
+    private Long articleId;
+
+    /**
+     * 会话ID（可选），为空时使用请求头X-Session-Id
+     */
+    private String sessionId;
+
+    /**
+     * 页面URL（可选）
+     */
+    private String pageUrl;
+
+    /**
+     * 页面标题（可选）
+     */
+    private String pageTitle;
+
+    /**
+     * 客户端记录的事件时间（可选），为空时使用服务端接收时间
+     */
+    private LocalDateTime eventTime;
+
+    /**
+     * 额外属性（可选）
+     */
+    private Map<String, Object> properties;
+
+    // getters and setters
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getPageUrl() {
+        return pageUrl;
+    }
+
+    public void setPageUrl(String pageUrl) {
+        this.pageUrl = pageUrl;
+    }
+
+    public String getPageTitle() {
+        return pageTitle;
+    }
+
+    public void setPageTitle(String pageTitle) {
+        this.pageTitle = pageTitle;
+    }
+
+    public LocalDateTime getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(LocalDateTime eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+}
@@ -14,7 +14,11 @@ import java.util.Set;
  * 文章实体类
  */
 @Entity
-@Table(name = "blog_article")
+@Table(name = "blog_article", indexes = {
+        @Index(name = "idx_article_user_updated", columnList = "user_id, updated_time, id"),
+        @Index(name = "idx_article_category_updated", columnList = "category_id, updated_time, id"),
+        @Index(name = "idx_article_recommend_updated", columnList = "is_recommend, status, updated_time, id")
+})
 public class Article implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -76,8 +80,10 @@ public class Article implements Serializable {
     private Long likeCount = 0L;
 
     /**
-     * 评论量
+     * 评论量（审核通过的评论）
+     * 只由CounterFlusher按增量更新，保存实体时不写回，避免用旧值覆盖
      */
+    @Column(updatable = false)
     private Long commentCount = 0L;
 
     /**
@@ -37,6 +37,12 @@ public class Category implements Serializable {
      */
     private Long parentId = 0L;
 
+    /**
+     * 从顶级分类到当前分类的ID路径，如 /1/5/12/，按前缀匹配即可查出整棵子树
+     */
+    @Column(length = 500)
+    private String path;
+
     /**
      * 分类图标
      */
@@ -106,6 +112,14 @@ public class Category implements Serializable {
         this.parentId = parentId;
     }
 
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
     public String getIcon() {
         return icon;
     }
@@ -162,6 +176,7 @@ public class Category implements Serializable {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", parentId=" + parentId +
+                ", path='" + path + '\'' +
                 ", icon='" + icon + '\'' +
                 ", sort=" + sort +
                 ", status=" + status +
@@ -13,7 +13,11 @@ import java.util.Objects;
  * 评论实体类
  */
 @Entity
-@Table(name = "blog_comment")
+@Table(name = "blog_comment", indexes = {
+        @Index(name = "idx_comment_article_created", columnList = "article_id, status, created_time, id"),
+        @Index(name = "idx_comment_user_created", columnList = "user_id, created_time, id"),
+        @Index(name = "idx_comment_parent", columnList = "parent_id, status")
+})
 public class Comment implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -45,7 +45,9 @@ public class Tag implements Serializable {
 
     /**
      * 文章数量
+     * 由文章写入时按增量维护，更新标签时不覆盖
      */
+    @Column(updatable = false)
     private Integer articleCount = 0;
 
     /**
@@ -147,7 +149,8 @@ public class Tag implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Tag tag = (Tag) o;
-        return Objects.equals(id, tag.id);
+        // 未保存的标签没有ID，不能互相视为相等，否则请求中的多个新标签在Set中只会剩下一个
+        return id != null && Objects.equals(id, tag.id);
     }
 
     // hashCode method
@@ -0,0 +1,92 @@
+package com.blog.blogservice.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * 埋点事件按天汇总
+ * 由写入线程随每批事件增量更新
+ */
+@Entity
+@Table(name = "blog_tracking_daily_stat")
+@IdClass(TrackingDailyStat.StatId.class)
+public class TrackingDailyStat implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 统计日期
+     */
+    @Id
+    private LocalDate statDate;
+
+    /**
+     * 事件名称
+     */
+    @Id
+    @Column(length = 100)
+    private String eventName;
+
+    /**
+     * 事件数量
+     */
+    @Column(nullable = false)
+    private Long eventCount = 0L;
+
+    // Getters and Setters
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public Long getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(Long eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    /**
+     * 联合主键
+     */
+    public static class StatId implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate statDate;
+        private String eventName;
+
+        public StatId() {
+        }
+
+        public StatId(LocalDate statDate, String eventName) {
+            this.statDate = statDate;
+            this.eventName = eventName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StatId statId = (StatId) o;
+            return Objects.equals(statDate, statId.statDate) && Objects.equals(eventName, statId.eventName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(statDate, eventName);
+        }
+    }
+}
@@ -8,14 +8,19 @@ import java.util.Objects;
 
 /**
  * 埋点事件实体类
+ * 表按event_time做月度分区，分区和索引由TrackingPartitionManager维护
  */
 @Entity
 @Table(name = "blog_tracking_event")
 public class TrackingEvent implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * 使用序列生成ID，一次预取50个，使批量插入可以合并为JDBC批处理
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracking_event_seq")
+    @SequenceGenerator(name = "tracking_event_seq", sequenceName = "blog_tracking_event_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -34,6 +39,24 @@ public class TrackingEvent implements Serializable {
      */
     private Long articleId;
 
+    /**
+     * 会话ID，由客户端生成
+     */
+    @Column(length = 64)
+    private String sessionId;
+
+    /**
+     * 页面URL
+     */
+    @Column(length = 500)
+    private String pageUrl;
+
+    /**
+     * 页面标题
+     */
+    @Column(length = 255)
+    private String pageTitle;
+
     /**
      * IP地址
      */
@@ -103,6 +126,30 @@ public class TrackingEvent implements Serializable {
         this.articleId = articleId;
     }
 
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getPageUrl() {
+        return pageUrl;
+    }
+
+    public void setPageUrl(String pageUrl) {
+        this.pageUrl = pageUrl;
+    }
+
+    public String getPageTitle() {
+        return pageTitle;
+    }
+
+    public void setPageTitle(String pageTitle) {
+        this.pageTitle = pageTitle;
+    }
+
     public String getIpAddress() {
         return ipAddress;
     }
@@ -159,6 +206,9 @@ public class TrackingEvent implements Serializable {
                 ", eventName='" + eventName + '\'' +
                 ", userId=" + userId +
                 ", articleId=" + articleId +
+                ", sessionId='" + sessionId + '\'' +
+                ", pageUrl='" + pageUrl + '\'' +
+                ", pageTitle='" + pageTitle + '\'' +
                 ", ipAddress='" + ipAddress + '\'' +
                 ", userAgent='" + userAgent + '\'' +
                 ", browser='" + browser + '\'' +
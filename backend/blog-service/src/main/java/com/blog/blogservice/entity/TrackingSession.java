@@ -0,0 +1,172 @@
+package com.blog.blogservice.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 会话汇总
+ * 会话空闲超时后由TrackingSessionizer写入，每个会话一行
+ */
+@Entity
+@Table(name = "blog_tracking_session", indexes = {
+        @Index(name = "idx_tracking_session_start", columnList = "startTime")
+})
+public class TrackingSession implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 会话ID
+     */
+    @Id
+    @Column(length = 64)
+    private String sessionId;
+
+    /**
+     * 用户ID，匿名会话为空
+     */
+    private Long userId;
+
+    /**
+     * 第一个事件的时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    /**
+     * 最后一个事件的时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    /**
+     * 会话时长（秒）
+     */
+    @Column(nullable = false)
+    private Long durationSeconds;
+
+    /**
+     * 页面访问次数
+     */
+    @Column(nullable = false)
+    private Integer pageCount;
+
+    /**
+     * 事件总数
+     */
+    @Column(nullable = false)
+    private Integer eventCount;
+
+    /**
+     * 是否跳出（只访问了一个页面）
+     */
+    @Column(nullable = false)
+    private Boolean bounce;
+
+    /**
+     * 入口页面
+     */
+    @Column(length = 500)
+    private String entryPage;
+
+    /**
+     * 退出页面
+     */
+    @Column(length = 500)
+    private String exitPage;
+
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public Integer getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(Integer eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public Boolean getBounce() {
+        return bounce;
+    }
+
+    public void setBounce(Boolean bounce) {
+        this.bounce = bounce;
+    }
+
+    public String getEntryPage() {
+        return entryPage;
+    }
+
+    public void setEntryPage(String entryPage) {
+        this.entryPage = entryPage;
+    }
+
+    public String getExitPage() {
+        return exitPage;
+    }
+
+    public void setExitPage(String exitPage) {
+        this.exitPage = exitPage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TrackingSession that = (TrackingSession) o;
+        return Objects.equals(sessionId, that.sessionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sessionId);
+    }
+}
@@ -0,0 +1,118 @@
+package com.blog.blogservice.recommend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 热门文章排行
+ * 后台任务定期把阅读、点赞、评论的增量按权重累加到文章热度上，已有热度按半衰期衰减，
+ * 再沿热度索引取出前N篇作为排行快照，热门文章查询直接按位置读取快照，查询时不再排序。
+ * 热度、上次计分时的活跃度和计分时间保存在文章表中，多个实例同时执行时按实际经过的时间衰减，不会重复计分。
+ */
+@Component
+public class HotArticleRanker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotArticleRanker.class);
+
+    /**
+     * 首次计分的文章按发布至今的时间衰减全部活跃度，之后只累加两次计分之间的增量；
+     * 热度低于下限且没有新增量的文章不再更新，再次有增量时剩余热度按0计算，避免反复衰减后浮点下溢
+     */
+    private static final String SCORE_SQL = "UPDATE blog_article a SET "
+            + "hot_score = CASE WHEN a.hot_time IS NULL "
+            + "THEN s.activity * power(CAST(0.5 AS double precision), LEAST(EXTRACT(EPOCH FROM (now() - "
+            + "COALESCE(a.published_time, a.created_time, now()))) / ?, 1000)) "
+            + "ELSE CASE WHEN a.hot_score < ? THEN 0 "
+            + "ELSE a.hot_score * power(CAST(0.5 AS double precision), LEAST(EXTRACT(EPOCH FROM (now() - a.hot_time)) / ?, 1000)) END "
+            + "+ GREATEST(s.activity - a.hot_activity, 0) END, "
+            + "hot_activity = s.activity, hot_time = now() "
+            + "FROM (SELECT id, COALESCE(view_count, 0) * ? + COALESCE(like_count, 0) * ? + COALESCE(comment_count, 0) * ? "
+            + "AS activity FROM blog_article WHERE status = 2) s "
+            + "WHERE a.id = s.id AND (a.hot_time IS NULL OR a.hot_score > ? OR s.activity <> a.hot_activity)";
+
+    private static final String TOP_SQL = "SELECT id FROM blog_article WHERE status = 2 "
+            + "ORDER BY hot_score DESC, id DESC LIMIT ?";
+
+    /**
+     * 低于该值的热度视为已冷却
+     */
+    private static final double MIN_SCORE = 0.01;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${blog.hot.view-weight:1}")
+    private double viewWeight;
+
+    @Value("${blog.hot.like-weight:5}")
+    private double likeWeight;
+
+    @Value("${blog.hot.comment-weight:10}")
+    private double commentWeight;
+
+    /**
+     * 热度半衰期（小时）
+     */
+    @Value("${blog.hot.half-life-hours:24}")
+    private double halfLifeHours;
+
+    /**
+     * 排行保留的文章数
+     */
+    @Value("${blog.hot.top-size:500}")
+    private int topSize;
+
+    /**
+     * 按热度降序的文章ID，整体替换
+     */
+    private volatile List<Long> ranking;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    /**
+     * 重新计分并刷新排行
+     */
+    @Scheduled(initialDelayString = "${blog.hot.refresh-interval:300000}",
+            fixedDelayString = "${blog.hot.refresh-interval:300000}")
+    public void refresh() {
+        double halfLifeSeconds = halfLifeHours * 3600;
+        try {
+            int scored = jdbcTemplate.update(SCORE_SQL, halfLifeSeconds, MIN_SCORE, halfLifeSeconds,
+                    viewWeight, likeWeight, commentWeight, MIN_SCORE);
+            ranking = loadTop();
+            logger.debug("Scored {} articles, hot ranking has {} articles", scored, ranking.size());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to refresh hot article ranking", e);
+        }
+    }
+
+    /**
+     * 当前排行，首次访问时从数据库加载
+     * @return 按热度降序的文章ID，只读
+     */
+    public List<Long> getRanking() {
+        List<Long> current = ranking;
+        if (current == null) {
+            current = loadTop();
+            ranking = current;
+        }
+        return current;
+    }
+
+    private List<Long> loadTop() {
+        return List.copyOf(jdbcTemplate.queryForList(TOP_SQL, Long.class, topSize));
+    }
+}
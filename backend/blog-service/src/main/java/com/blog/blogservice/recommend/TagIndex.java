@@ -0,0 +1,257 @@
+package com.blog.blogservice.recommend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 标签索引
+ * 在内存中维护已发布文章的标签倒排索引（标签 -> 有序文章ID数组）和标签共现矩阵，
+ * 相关文章按共同标签的权重打分，标签越少见权重越高。
+ * 读取不加锁；文章标签变化时在事务提交后增量更新，定时全量重建用于同步其他实例的修改。
+ */
+@Component
+public class TagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagIndex.class);
+
+    private static final long[] EMPTY = new long[0];
+
+    private static final String LOAD_SQL = "SELECT r.article_id, r.tag_id FROM blog_article_tag r "
+            + "JOIN blog_article a ON a.id = r.article_id WHERE a.status = 2 ORDER BY r.article_id, r.tag_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile State state = new State();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * 从数据库全量重建，重建期间的增量更新等待重建完成后再执行，不会被覆盖
+     */
+    @Scheduled(initialDelayString = "${blog.related.rebuild-interval:600000}",
+            fixedDelayString = "${blog.related.rebuild-interval:600000}")
+    public synchronized void rebuild() {
+        Map<Long, List<Long>> tagsByArticle = new HashMap<>();
+        try {
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs ->
+                    tagsByArticle.computeIfAbsent(rs.getLong(1), key -> new ArrayList<>()).add(rs.getLong(2)));
+        } catch (DataAccessException e) {
+            logger.warn("Failed to rebuild tag index", e);
+            return;
+        }
+        State rebuilt = new State();
+        tagsByArticle.forEach((articleId, tagIds) -> rebuilt.apply(articleId, toSortedArray(tagIds)));
+        state = rebuilt;
+        logger.info("Tag index rebuilt with {} articles and {} tags", rebuilt.tagsByArticle.size(),
+                rebuilt.articlesByTag.size());
+    }
+
+    /**
+     * 文章标签或状态变化后调用，在事务提交后更新索引
+     * @param articleId 文章ID
+     * @param tagIds 文章当前的标签ID，文章未发布或已删除时传空集合
+     */
+    public void updateAfterCommit(Long articleId, Collection<Long> tagIds) {
+        long[] tags = toSortedArray(tagIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(articleId, tags);
+                }
+            });
+        } else {
+            update(articleId, tags);
+        }
+    }
+
+    /**
+     * 立即更新文章的标签
+     * @param articleId 文章ID
+     * @param tagIds 有序且不重复的标签ID，空数组表示从索引中移除
+     */
+    public synchronized void update(long articleId, long[] tagIds) {
+        state.apply(articleId, tagIds);
+    }
+
+    /**
+     * 相关文章
+     * @param articleId 文章ID
+     * @param limit 最多返回的数量
+     * @return 文章ID -> 得分，按得分降序；文章不在索引中时为空
+     */
+    public Map<Long, Double> relatedArticles(long articleId, int limit) {
+        State current = state;
+        long[] tags = current.tagsByArticle.get(articleId);
+        if (tags == null || limit <= 0) {
+            return Map.of();
+        }
+        double articleCount = current.tagsByArticle.size();
+        Map<Long, Double> scores = new HashMap<>();
+        for (long tagId : tags) {
+            long[] articles = current.articlesByTag.getOrDefault(tagId, EMPTY);
+            if (articles.length <= 1) {
+                continue;
+            }
+            // 逆文档频率：标签覆盖的文章越多，作为相关依据的权重越低
+            double weight = Math.log(1 + articleCount / articles.length);
+            for (long candidate : articles) {
+                if (candidate != articleId) {
+                    scores.merge(candidate, weight, Double::sum);
+                }
+            }
+        }
+        // 得分相同时优先较新的文章
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(
+                Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        return drainDescending(top);
+    }
+
+    /**
+     * 相关标签
+     * @param tagId 标签ID
+     * @param limit 最多返回的数量
+     * @return 标签ID -> 同时出现的文章数，按数量降序
+     */
+    public Map<Long, Integer> relatedTags(long tagId, int limit) {
+        Map<Long, Integer> row = state.cooccurrence.get(tagId);
+        if (row == null || limit <= 0) {
+            return Map.of();
+        }
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(
+                Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<Long, Integer> entry : row.entrySet()) {
+            top.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        return drainDescending(top);
+    }
+
+    private static <V> Map<Long, V> drainDescending(PriorityQueue<Map.Entry<Long, V>> queue) {
+        List<Map.Entry<Long, V>> entries = new ArrayList<>(queue.size());
+        while (!queue.isEmpty()) {
+            entries.add(queue.poll());
+        }
+        Map<Long, V> result = new LinkedHashMap<>();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            result.put(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        return result;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * 索引数据，只在持有TagIndex锁时修改，数组整体替换不原地修改，读取方总能看到完整的数组
+     */
+    private static final class State {
+
+        private final Map<Long, long[]> articlesByTag = new ConcurrentHashMap<>();
+        private final Map<Long, long[]> tagsByArticle = new ConcurrentHashMap<>();
+        private final Map<Long, Map<Long, Integer>> cooccurrence = new ConcurrentHashMap<>();
+
+        void apply(long articleId, long[] tagIds) {
+            long[] previous = tagsByArticle.getOrDefault(articleId, EMPTY);
+            if (Arrays.equals(previous, tagIds)) {
+                return;
+            }
+            for (long tagId : previous) {
+                if (Arrays.binarySearch(tagIds, tagId) < 0) {
+                    articlesByTag.computeIfPresent(tagId, (key, articles) -> {
+                        long[] remaining = remove(articles, articleId);
+                        return remaining.length == 0 ? null : remaining;
+                    });
+                }
+            }
+            for (long tagId : tagIds) {
+                if (Arrays.binarySearch(previous, tagId) < 0) {
+                    articlesByTag.merge(tagId, new long[]{articleId}, (articles, added) -> insert(articles, articleId));
+                }
+            }
+            adjustPairs(previous, -1);
+            adjustPairs(tagIds, 1);
+            if (tagIds.length == 0) {
+                tagsByArticle.remove(articleId);
+            } else {
+                tagsByArticle.put(articleId, tagIds);
+            }
+        }
+
+        private void adjustPairs(long[] tagIds, int delta) {
+            for (int i = 0; i < tagIds.length; i++) {
+                for (int j = i + 1; j < tagIds.length; j++) {
+                    adjustPair(tagIds[i], tagIds[j], delta);
+                    adjustPair(tagIds[j], tagIds[i], delta);
+                }
+            }
+        }
+
+        private void adjustPair(long tagId, long otherTagId, int delta) {
+            cooccurrence.compute(tagId, (key, row) -> {
+                if (row == null) {
+                    row = new ConcurrentHashMap<>();
+                }
+                row.merge(otherTagId, delta, (count, added) -> count + added == 0 ? null : count + added);
+                return row.isEmpty() ? null : row;
+            });
+        }
+
+        private static long[] insert(long[] sorted, long value) {
+            int index = Arrays.binarySearch(sorted, value);
+            if (index >= 0) {
+                return sorted;
+            }
+            int position = -index - 1;
+            long[] result = new long[sorted.length + 1];
+            System.arraycopy(sorted, 0, result, 0, position);
+            result[position] = value;
+            System.arraycopy(sorted, position, result, position + 1, sorted.length - position);
+            return result;
+        }
+
+        private static long[] remove(long[] sorted, long value) {
+            int index = Arrays.binarySearch(sorted, value);
+            if (index < 0) {
+                return sorted;
+            }
+            long[] result = new long[sorted.length - 1];
+            System.arraycopy(sorted, 0, result, 0, index);
+            System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+            return result;
+        }
+    }
+}
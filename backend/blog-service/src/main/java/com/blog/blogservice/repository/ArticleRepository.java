@@ -1,12 +1,20 @@
 package com.blog.blogservice.repository;
 
 import com.blog.blogservice.entity.Article;
+import com.blog.blogservice.repository.projection.ArticleSearchHit;
+import com.blog.blogservice.repository.projection.CategoryArticleCount;
+import com.blog.blogservice.repository.projection.ArticleSummary;
+import com.blog.blogservice.utils.SearchUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,61 +25,211 @@ import java.util.Optional;
 public interface ArticleRepository extends JpaRepository<Article, Long> {
 
     /**
-     * 根据用户ID查询文章
-     * @param userId 用户ID
+     * 文章列表投影的查询字段
+     */
+    String SUMMARY_SELECT = "SELECT a.id AS id, a.title AS title, a.summary AS summary, a.coverImage AS coverImage, "
+            + "a.userId AS userId, a.categoryId AS categoryId, a.status AS status, a.viewCount AS viewCount, "
+            + "a.likeCount AS likeCount, a.commentCount AS commentCount, a.isTop AS isTop, a.isRecommend AS isRecommend, "
+            + "a.createdTime AS createdTime, a.updatedTime AS updatedTime, a.publishedTime AS publishedTime FROM Article a ";
+
+    /**
+     * 分类子树条件，:path 为子树根分类的路径
+     */
+    String CATEGORY_SUBTREE = "a.categoryId IN (SELECT c.id FROM Category c WHERE c.path LIKE CONCAT(:path, '%')) ";
+
+    /**
+     * ts_headline 的高亮标记，转义后再替换为高亮标签，避免原文中的HTML被原样返回
+     */
+    String HEADLINE_OPTIONS = "StartSel=" + SearchUtils.HEADLINE_START + ", StopSel=" + SearchUtils.HEADLINE_STOP;
+
+    /**
+     * 子串匹配的检索文本
+     */
+    String SEARCH_TEXT = "(coalesce(b.title, '') || ' ' || coalesce(b.summary, '') || ' ' || coalesce(b.content, ''))";
+
+    /**
+     * 先用单字和相邻两字的索引过滤出候选，再用 ILIKE 确认，与 db/schema.sql 中 idx_article_search_grams 的表达式保持一致
+     */
+    String SUBSTRING_MATCH = "blog_search_grams" + SEARCH_TEXT + " @> string_to_array(:grams, ' ') AND " + SEARCH_TEXT + " ILIKE :pattern";
+
+    /**
+     * 根据状态查询文章
+     * @param status 文章状态
      * @param pageable 分页参数
      * @return 文章列表
      */
-    Page<Article> findByUserId(Long userId, Pageable pageable);
+    Page<Article> findByStatus(Integer status, Pageable pageable);
 
     /**
-     * 根据分类ID查询文章
-     * @param categoryId 分类ID
+     * 根据用户ID查询文章列表投影
+     * @param userId 用户ID
      * @param pageable 分页参数
      * @return 文章列表
      */
-    Page<Article> findByCategoryId(Long categoryId, Pageable pageable);
+    Page<ArticleSummary> findSummaryByUserId(Long userId, Pageable pageable);
 
     /**
-     * 根据状态查询文章
-     * @param status 文章状态
+     * 根据分类ID查询文章列表投影
+     * @param categoryId 分类ID
      * @param pageable 分页参数
      * @return 文章列表
      */
-    Page<Article> findByStatus(Integer status, Pageable pageable);
+    Page<ArticleSummary> findSummaryByCategoryId(Long categoryId, Pageable pageable);
 
     /**
-     * 查询热门文章
+     * 查询分类及其所有子分类下的文章列表投影
+     * @param path 分类路径
      * @param pageable 分页参数
-     * @return 热门文章列表
+     * @return 文章列表
      */
-    Page<Article> findByStatusOrderByViewCountDesc(Integer status, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE " + CATEGORY_SUBTREE,
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE " + CATEGORY_SUBTREE)
+    Page<ArticleSummary> findSummaryByCategoryPath(@Param("path") String path, Pageable pageable);
 
     /**
-     * 查询推荐文章
+     * 查询推荐文章列表投影
      * @param isRecommend 是否推荐
      * @param status 文章状态
      * @param pageable 分页参数
      * @return 推荐文章列表
      */
-    Page<Article> findByIsRecommendAndStatus(Boolean isRecommend, Integer status, Pageable pageable);
+    Page<ArticleSummary> findSummaryByIsRecommendAndStatus(Boolean isRecommend, Integer status, Pageable pageable);
 
     /**
-     * 查询置顶文章
+     * 查询置顶文章列表投影
      * @param isTop 是否置顶
      * @param status 文章状态
      * @return 置顶文章列表
      */
-    List<Article> findByIsTopAndStatusOrderByUpdatedTimeDesc(Boolean isTop, Integer status);
+    List<ArticleSummary> findSummaryByIsTopAndStatusOrderByUpdatedTimeDesc(Boolean isTop, Integer status);
 
     /**
-     * 根据标题模糊查询文章
-     * @param title 文章标题
+     * 根据ID和状态批量查询文章列表投影
+     * @param ids 文章ID
      * @param status 文章状态
-     * @param pageable 分页参数
+     * @return 文章列表，不保证顺序
+     */
+    List<ArticleSummary> findSummaryByIdInAndStatus(Collection<Long> ids, Integer status);
+
+    /**
+     * 全文检索已发布的文章，按相关度降序
+     * 先在索引上取出当前页的ID和相关度，只对当前页生成高亮片段
+     * @param keyword 搜索关键词，支持websearch语法
+     * @param pageSize 每页大小
+     * @param pageOffset 偏移量
+     * @return 命中结果，命中词用 SearchUtils 的标记字符包围
+     */
+    @Query(value = "SELECT hit.id AS id, hit.rank AS rank, "
+            + "ts_headline('simple', a.title, hit.query, 'HighlightAll=true, " + HEADLINE_OPTIONS + "') AS \"titleHighlight\", "
+            + "ts_headline('simple', coalesce(a.summary, '') || ' ' || coalesce(a.content, ''), hit.query, "
+            + "'MaxFragments=2, MaxWords=30, MinWords=10, " + HEADLINE_OPTIONS + "') AS \"contentHighlight\" "
+            + "FROM (SELECT b.id, q.query, CAST(ts_rank_cd(b.search_vector, q.query) AS double precision) AS rank "
+            + "FROM blog_article b, websearch_to_tsquery('simple', :keyword) AS q(query) "
+            + "WHERE b.status = 2 AND b.search_vector @@ q.query "
+            + "ORDER BY rank DESC, b.id DESC LIMIT :pageSize OFFSET :pageOffset) hit "
+            + "JOIN blog_article a ON a.id = hit.id "
+            + "ORDER BY hit.rank DESC, hit.id DESC",
+            nativeQuery = true)
+    List<ArticleSearchHit> searchPublished(@Param("keyword") String keyword, @Param("pageSize") int pageSize,
+                                           @Param("pageOffset") long pageOffset);
+
+    /**
+     * 统计全文检索命中的已发布文章数量
+     * @param keyword 搜索关键词
+     * @return 命中数量
+     */
+    @Query(value = "SELECT count(*) FROM blog_article "
+            + "WHERE status = 2 AND search_vector @@ websearch_to_tsquery('simple', :keyword)",
+            nativeQuery = true)
+    long countPublishedMatches(@Param("keyword") String keyword);
+
+    /**
+     * 按子串匹配检索已发布的文章，用于包含中日韩文字的关键词，走单字和相邻两字的索引
+     * 相关度按命中的字段计算：标题1.0、摘要0.4、正文0.2
+     * @param grams 关键词的索引片段
+     * @param pattern ILIKE 模式
+     * @param firstTerm 第一个关键词，正文片段从它第一次出现的位置附近截取
+     * @param pageSize 每页大小
+     * @param pageOffset 偏移量
+     * @return 命中结果，标题和正文片段都是原文
+     */
+    @Query(value = "SELECT hit.id AS id, hit.rank AS rank, a.title AS \"titleHighlight\", "
+            + "substr(body.doc, greatest(strpos(lower(body.doc), lower(:firstTerm)) - 30, 1), 120) AS \"contentHighlight\" "
+            + "FROM (SELECT b.id, CAST(CASE WHEN b.title ILIKE :pattern THEN 1.0 ELSE 0 END "
+            + "+ CASE WHEN b.summary ILIKE :pattern THEN 0.4 ELSE 0 END "
+            + "+ CASE WHEN b.content ILIKE :pattern THEN 0.2 ELSE 0 END AS double precision) AS rank "
+            + "FROM blog_article b WHERE b.status = 2 AND " + SUBSTRING_MATCH + " "
+            + "ORDER BY rank DESC, b.id DESC LIMIT :pageSize OFFSET :pageOffset) hit "
+            + "JOIN blog_article a ON a.id = hit.id "
+            + "CROSS JOIN LATERAL (SELECT coalesce(a.summary, '') || ' ' || coalesce(a.content, '') AS doc) body "
+            + "ORDER BY hit.rank DESC, hit.id DESC",
+            nativeQuery = true)
+    List<ArticleSearchHit> searchPublishedBySubstring(@Param("grams") String grams, @Param("pattern") String pattern,
+                                                      @Param("firstTerm") String firstTerm,
+                                                      @Param("pageSize") int pageSize, @Param("pageOffset") long pageOffset);
+
+    /**
+     * 统计子串匹配命中的已发布文章数量
+     * @param grams 关键词的索引片段
+     * @param pattern ILIKE 模式
+     * @return 命中数量
+     */
+    @Query(value = "SELECT count(*) FROM blog_article b WHERE b.status = 2 AND " + SUBSTRING_MATCH, nativeQuery = true)
+    long countPublishedSubstringMatches(@Param("grams") String grams, @Param("pattern") String pattern);
+
+    /**
+     * 按游标查询用户的文章，按更新时间、ID降序
+     * @param userId 用户ID
+     * @param updatedTime 游标位置的更新时间
+     * @param id 游标位置的文章ID
+     * @param pageable 只用于限制条数
+     * @return 文章列表
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.userId = :userId AND (a.updatedTime, a.id) < (:updatedTime, :id) "
+            + "ORDER BY a.updatedTime DESC, a.id DESC")
+    List<ArticleSummary> findSummaryByUserIdAfter(@Param("userId") Long userId, @Param("updatedTime") LocalDateTime updatedTime,
+                                                  @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按游标查询分类下的文章，按更新时间、ID降序
+     * @param categoryId 分类ID
+     * @param updatedTime 游标位置的更新时间
+     * @param id 游标位置的文章ID
+     * @param pageable 只用于限制条数
+     * @return 文章列表
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.categoryId = :categoryId AND (a.updatedTime, a.id) < (:updatedTime, :id) "
+            + "ORDER BY a.updatedTime DESC, a.id DESC")
+    List<ArticleSummary> findSummaryByCategoryIdAfter(@Param("categoryId") Long categoryId, @Param("updatedTime") LocalDateTime updatedTime,
+                                                      @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按游标查询分类及其所有子分类下的文章，按更新时间、ID降序
+     * @param path 分类路径
+     * @param updatedTime 游标位置的更新时间
+     * @param id 游标位置的文章ID
+     * @param pageable 只用于限制条数
      * @return 文章列表
      */
-    Page<Article> findByTitleContainingAndStatus(String title, Integer status, Pageable pageable);
+    @Query(SUMMARY_SELECT + "WHERE " + CATEGORY_SUBTREE + "AND (a.updatedTime, a.id) < (:updatedTime, :id) "
+            + "ORDER BY a.updatedTime DESC, a.id DESC")
+    List<ArticleSummary> findSummaryByCategoryPathAfter(@Param("path") String path, @Param("updatedTime") LocalDateTime updatedTime,
+                                                        @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按游标查询推荐文章，按更新时间、ID降序
+     * @param isRecommend 是否推荐
+     * @param status 文章状态
+     * @param updatedTime 游标位置的更新时间
+     * @param id 游标位置的文章ID
+     * @param pageable 只用于限制条数
+     * @return 推荐文章列表
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.isRecommend = :isRecommend AND a.status = :status "
+            + "AND (a.updatedTime, a.id) < (:updatedTime, :id) ORDER BY a.updatedTime DESC, a.id DESC")
+    List<ArticleSummary> findRecommendSummaryAfter(@Param("isRecommend") Boolean isRecommend, @Param("status") Integer status,
+                                                   @Param("updatedTime") LocalDateTime updatedTime, @Param("id") Long id,
+                                                   Pageable pageable);
 
     /**
      * 统计用户发布的文章数量
@@ -80,4 +238,23 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
      * @return 文章数量
      */
     Long countByUserIdAndStatus(Long userId, Integer status);
+
+    /**
+     * 按分类统计文章数量
+     * @param status 文章状态
+     * @return 每个分类的文章数量，没有文章的分类不返回
+     */
+    @Query("SELECT a.categoryId AS categoryId, COUNT(a) AS articleCount FROM Article a "
+            + "WHERE a.status = :status GROUP BY a.categoryId")
+    List<CategoryArticleCount> countGroupByCategoryId(@Param("status") Integer status);
+
+    /**
+     * 原子增加文章点赞量
+     * @param id 文章ID
+     * @param delta 增量
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE Article a SET a.likeCount = a.likeCount + :delta WHERE a.id = :id")
+    int incrementLikeCount(@Param("id") Long id, @Param("delta") long delta);
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.blog.blogservice.repository;
 
 import com.blog.blogservice.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -40,4 +43,15 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      * @return 是否存在
      */
     boolean existsByName(String name);
+
+    /**
+     * 移动子树时批量替换路径前缀，包含子树根节点及所有后代
+     * @param oldPath 原路径
+     * @param newPath 新路径
+     * @return 更新的行数
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE blog_category SET path = :newPath || substr(path, length(:oldPath) + 1) "
+            + "WHERE path LIKE :oldPath || '%'", nativeQuery = true)
+    int replacePathPrefix(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
\ No newline at end of file
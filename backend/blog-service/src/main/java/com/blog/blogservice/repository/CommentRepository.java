@@ -1,11 +1,17 @@
 package com.blog.blogservice.repository;
 
 import com.blog.blogservice.entity.Comment;
+import com.blog.blogservice.repository.projection.CommentThreadRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -39,6 +45,73 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     Page<Comment> findByUserId(Long userId, Pageable pageable);
 
+    /**
+     * 按游标查询文章的评论，按创建时间、ID升序
+     * @param articleId 文章ID
+     * @param status 评论状态
+     * @param createdTime 游标位置的创建时间
+     * @param id 游标位置的评论ID
+     * @param pageable 只用于限制条数
+     * @return 评论列表
+     */
+    @Query("SELECT c FROM Comment c WHERE c.articleId = :articleId AND c.status = :status "
+            + "AND (c.createdTime, c.id) > (:createdTime, :id) ORDER BY c.createdTime ASC, c.id ASC")
+    List<Comment> findByArticleIdAndStatusAfter(@Param("articleId") Long articleId, @Param("status") Integer status,
+                                                @Param("createdTime") LocalDateTime createdTime, @Param("id") Long id,
+                                                Pageable pageable);
+
+    /**
+     * 按游标查询用户的评论，按创建时间、ID降序
+     * @param userId 用户ID
+     * @param createdTime 游标位置的创建时间
+     * @param id 游标位置的评论ID
+     * @param pageable 只用于限制条数
+     * @return 评论列表
+     */
+    @Query("SELECT c FROM Comment c WHERE c.userId = :userId "
+            + "AND (c.createdTime, c.id) < (:createdTime, :id) ORDER BY c.createdTime DESC, c.id DESC")
+    List<Comment> findByUserIdAfter(@Param("userId") Long userId, @Param("createdTime") LocalDateTime createdTime,
+                                    @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 用递归CTE一次查出文章下审核通过的整棵评论树
+     * 父评论未通过审核时整棵子树都不返回；超过深度上限的回复挂到上限层的祖先下，和它平级显示
+     * @param articleId 文章ID
+     * @param maxDepth 显示的最大层级，一级评论为1
+     * @return 评论行，按层级、创建时间、ID升序
+     */
+    @Query(value = "WITH RECURSIVE thread AS ("
+            + "SELECT c.id, c.parent_id, CAST(0 AS bigint) AS display_parent_id, 1 AS depth "
+            + "FROM blog_comment c WHERE c.article_id = :articleId AND c.status = 1 AND c.parent_id = 0 "
+            + "UNION ALL "
+            + "SELECT c.id, c.parent_id, CASE WHEN t.depth >= :maxDepth THEN t.display_parent_id ELSE t.id END, "
+            + "LEAST(t.depth + 1, :maxDepth) "
+            + "FROM blog_comment c JOIN thread t ON c.parent_id = t.id "
+            + "WHERE c.article_id = :articleId AND c.status = 1) "
+            + "SELECT c.id AS id, t.parent_id AS \"parentId\", t.display_parent_id AS \"displayParentId\", t.depth AS depth, "
+            + "c.user_id AS \"userId\", c.nickname AS nickname, c.avatar AS avatar, c.content AS content, "
+            + "c.like_count AS \"likeCount\", c.created_time AS \"createdTime\" "
+            + "FROM thread t JOIN blog_comment c ON c.id = t.id "
+            + "ORDER BY t.depth, c.created_time, c.id",
+            nativeQuery = true)
+    List<CommentThreadRow> findApprovedThread(@Param("articleId") Long articleId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * 用一条递归CTE语句删除评论及其所有层级的回复，不区分审核状态
+     * @param id 评论ID
+     * 语句以SELECT返回计数，不能标记为@Modifying；仓库方法默认是只读事务，这里单独声明读写事务
+     * @return 删除的评论中审核通过的数量，用于调整文章评论量
+     */
+    @Transactional
+    @Query(value = "WITH RECURSIVE subtree AS ("
+            + "SELECT id FROM blog_comment WHERE id = :id "
+            + "UNION ALL "
+            + "SELECT c.id FROM blog_comment c JOIN subtree s ON c.parent_id = s.id), "
+            + "deleted AS (DELETE FROM blog_comment WHERE id IN (SELECT id FROM subtree) RETURNING status) "
+            + "SELECT COUNT(*) FROM deleted WHERE status = 1",
+            nativeQuery = true)
+    long deleteSubtree(@Param("id") Long id);
+
     /**
      * 统计文章的评论数量
      * @param articleId 文章ID
@@ -46,4 +119,14 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @return 评论数量
      */
     Long countByArticleIdAndStatus(Long articleId, Integer status);
+
+    /**
+     * 原子增加评论点赞量
+     * @param id 评论ID
+     * @param delta 增量
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount + :delta WHERE c.id = :id")
+    int incrementLikeCount(@Param("id") Long id, @Param("delta") int delta);
 }
\ No newline at end of file
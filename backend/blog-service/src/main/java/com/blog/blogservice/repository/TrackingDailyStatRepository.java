@@ -0,0 +1,24 @@
+package com.blog.blogservice.repository;
+
+import com.blog.blogservice.entity.TrackingDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 埋点日汇总仓库接口
+ */
+@Repository
+public interface TrackingDailyStatRepository extends JpaRepository<TrackingDailyStat, TrackingDailyStat.StatId> {
+
+    /**
+     * 查询指定事件在日期范围内的每日数量
+     * @param eventName 事件名称
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 每日汇总，没有事件的日期不返回
+     */
+    List<TrackingDailyStat> findByEventNameAndStatDateBetween(String eventName, LocalDate startDate, LocalDate endDate);
+}
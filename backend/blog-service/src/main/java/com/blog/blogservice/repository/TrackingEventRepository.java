@@ -4,6 +4,8 @@ import com.blog.blogservice.entity.TrackingEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -58,6 +60,58 @@ public interface TrackingEventRepository extends JpaRepository<TrackingEvent, Lo
      */
     Page<TrackingEvent> findByEventNameAndEventTimeBetween(String eventName, LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
 
+    /**
+     * 按游标查询指定名称的事件，按事件时间、ID降序
+     * @param eventName 事件名称
+     * @param eventTime 游标位置的事件时间
+     * @param id 游标位置的事件ID
+     * @param pageable 只用于限制条数
+     * @return 事件列表
+     */
+    @Query("SELECT e FROM TrackingEvent e WHERE e.eventName = :eventName "
+            + "AND (e.eventTime, e.id) < (:eventTime, :id) ORDER BY e.eventTime DESC, e.id DESC")
+    List<TrackingEvent> findByEventNameAfter(@Param("eventName") String eventName, @Param("eventTime") LocalDateTime eventTime,
+                                             @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按游标查询用户的事件，按事件时间、ID降序
+     * @param userId 用户ID
+     * @param eventTime 游标位置的事件时间
+     * @param id 游标位置的事件ID
+     * @param pageable 只用于限制条数
+     * @return 事件列表
+     */
+    @Query("SELECT e FROM TrackingEvent e WHERE e.userId = :userId "
+            + "AND (e.eventTime, e.id) < (:eventTime, :id) ORDER BY e.eventTime DESC, e.id DESC")
+    List<TrackingEvent> findByUserIdAfter(@Param("userId") Long userId, @Param("eventTime") LocalDateTime eventTime,
+                                          @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按游标查询文章的事件，按事件时间、ID降序
+     * @param articleId 文章ID
+     * @param eventTime 游标位置的事件时间
+     * @param id 游标位置的事件ID
+     * @param pageable 只用于限制条数
+     * @return 事件列表
+     */
+    @Query("SELECT e FROM TrackingEvent e WHERE e.articleId = :articleId "
+            + "AND (e.eventTime, e.id) < (:eventTime, :id) ORDER BY e.eventTime DESC, e.id DESC")
+    List<TrackingEvent> findByArticleIdAfter(@Param("articleId") Long articleId, @Param("eventTime") LocalDateTime eventTime,
+                                             @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按游标查询时间范围内的事件，按事件时间、ID降序
+     * @param startTime 开始时间
+     * @param eventTime 游标位置的事件时间，不晚于结束时间
+     * @param id 游标位置的事件ID
+     * @param pageable 只用于限制条数
+     * @return 事件列表
+     */
+    @Query("SELECT e FROM TrackingEvent e WHERE e.eventTime >= :startTime "
+            + "AND (e.eventTime, e.id) < (:eventTime, :id) ORDER BY e.eventTime DESC, e.id DESC")
+    List<TrackingEvent> findByEventTimeAfter(@Param("startTime") LocalDateTime startTime, @Param("eventTime") LocalDateTime eventTime,
+                                             @Param("id") Long id, Pageable pageable);
+
     /**
      * 统计指定时间范围内的事件数量
      * @param startTime 开始时间
@@ -0,0 +1,30 @@
+package com.blog.blogservice.repository;
+
+import com.blog.blogservice.dto.SessionDailyStats;
+import com.blog.blogservice.entity.TrackingSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 会话汇总仓库接口
+ */
+@Repository
+public interface TrackingSessionRepository extends JpaRepository<TrackingSession, String> {
+
+    /**
+     * 按会话开始日期统计会话数、跳出数、平均时长和平均页面数
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @return 每日统计，按日期升序，没有会话的日期不返回
+     */
+    @Query("SELECT new com.blog.blogservice.dto.SessionDailyStats(CAST(s.startTime AS LocalDate), COUNT(s), "
+            + "SUM(CASE WHEN s.bounce = true THEN 1L ELSE 0L END), AVG(s.durationSeconds), AVG(s.pageCount)) "
+            + "FROM TrackingSession s WHERE s.startTime >= :startTime AND s.startTime < :endTime "
+            + "GROUP BY CAST(s.startTime AS LocalDate) ORDER BY CAST(s.startTime AS LocalDate)")
+    List<SessionDailyStats> findDailyStats(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+}
@@ -0,0 +1,16 @@
+package com.blog.blogservice.repository.projection;
+
+/**
+ * 全文检索命中结果
+ * 只包含文章ID、相关度和高亮片段，片段未做HTML转义，由服务层转义后加高亮标签
+ */
+public interface ArticleSearchHit {
+
+    Long getId();
+
+    Double getRank();
+
+    String getTitleHighlight();
+
+    String getContentHighlight();
+}
@@ -0,0 +1,40 @@
+package com.blog.blogservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章列表投影
+ * 只包含列表展示需要的字段，不查询文章正文和标签
+ */
+public interface ArticleSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    String getSummary();
+
+    String getCoverImage();
+
+    Long getUserId();
+
+    Long getCategoryId();
+
+    Integer getStatus();
+
+    Long getViewCount();
+
+    Long getLikeCount();
+
+    Long getCommentCount();
+
+    Boolean getIsTop();
+
+    Boolean getIsRecommend();
+
+    LocalDateTime getCreatedTime();
+
+    LocalDateTime getUpdatedTime();
+
+    LocalDateTime getPublishedTime();
+}
@@ -0,0 +1,11 @@
+package com.blog.blogservice.repository.projection;
+
+/**
+ * 分类文章数量统计
+ */
+public interface CategoryArticleCount {
+
+    Long getCategoryId();
+
+    Long getArticleCount();
+}
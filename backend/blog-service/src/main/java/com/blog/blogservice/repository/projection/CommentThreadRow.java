@@ -0,0 +1,30 @@
+package com.blog.blogservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评论树中的一行
+ * displayParentId是按深度上限折叠后挂载的父评论ID，一级评论为0
+ */
+public interface CommentThreadRow {
+
+    Long getId();
+
+    Long getParentId();
+
+    Long getDisplayParentId();
+
+    Integer getDepth();
+
+    Long getUserId();
+
+    String getNickname();
+
+    String getAvatar();
+
+    String getContent();
+
+    Integer getLikeCount();
+
+    LocalDateTime getCreatedTime();
+}
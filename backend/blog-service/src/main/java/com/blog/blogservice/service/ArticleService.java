@@ -1,6 +1,9 @@
 package com.blog.blogservice.service;
 
+import com.blog.blogservice.dto.ArticleSearchResult;
 import com.blog.blogservice.entity.Article;
+import com.blog.blogservice.repository.projection.ArticleSummary;
+import com.blog.blogservice.utils.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -46,43 +49,85 @@ public interface ArticleService {
      * @param pageable 分页参数
      * @return 文章列表
      */
-    Page<Article> getArticlesByUserId(Long userId, Pageable pageable);
+    Page<ArticleSummary> getArticlesByUserId(Long userId, Pageable pageable);
 
     /**
-     * 根据分类ID获取文章列表
+     * 根据分类ID获取文章列表，包含所有子分类下的文章
      * @param categoryId 分类ID
      * @param pageable 分页参数
      * @return 文章列表
      */
-    Page<Article> getArticlesByCategoryId(Long categoryId, Pageable pageable);
+    Page<ArticleSummary> getArticlesByCategoryId(Long categoryId, Pageable pageable);
 
     /**
-     * 获取热门文章
+     * 获取热门文章，按衰减后的热度排序，只包含排行中的前N篇
      * @param pageable 分页参数
      * @return 热门文章列表
      */
-    Page<Article> getHotArticles(Pageable pageable);
+    Page<ArticleSummary> getHotArticles(Pageable pageable);
 
     /**
      * 获取推荐文章
      * @param pageable 分页参数
      * @return 推荐文章列表
      */
-    Page<Article> getRecommendArticles(Pageable pageable);
+    Page<ArticleSummary> getRecommendArticles(Pageable pageable);
+
+    /**
+     * 按游标获取用户的文章列表
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 文章列表
+     */
+    CursorPage<ArticleSummary> getArticlesByUserId(Long userId, String cursor, int size);
+
+    /**
+     * 按游标获取分类下的文章列表，包含所有子分类下的文章
+     * @param categoryId 分类ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 文章列表
+     */
+    CursorPage<ArticleSummary> getArticlesByCategoryId(Long categoryId, String cursor, int size);
+
+    /**
+     * 按游标获取热门文章，按衰减后的热度排序，只包含排行中的前N篇
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 热门文章列表
+     */
+    CursorPage<ArticleSummary> getHotArticles(String cursor, int size);
+
+    /**
+     * 按游标获取推荐文章
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 推荐文章列表
+     */
+    CursorPage<ArticleSummary> getRecommendArticles(String cursor, int size);
 
     /**
      * 获取置顶文章
      * @return 置顶文章列表
      */
-    List<Article> getTopArticles();
+    List<ArticleSummary> getTopArticles();
 
     /**
-     * 搜索文章
+     * 全文搜索已发布的文章，按相关度排序，包含中日韩文字的关键词按子串匹配
      * @param keyword 搜索关键词
-     * @param pageable 分页参数
-     * @return 文章列表
+     * @param pageable 分页参数，排序字段不生效
+     * @return 带高亮片段的文章列表
+     */
+    Page<ArticleSearchResult> searchArticles(String keyword, Pageable pageable);
+
+    /**
+     * 获取相关文章，按共同标签的权重排序
+     * @param id 文章ID
+     * @param limit 最多返回的数量
+     * @return 相关文章列表，文章未发布或没有标签时为空
      */
-    Page<Article> searchArticles(String keyword, Pageable pageable);
+    List<ArticleSummary> getRelatedArticles(Long id, int limit);
 
     /**
      * 统计文章数量
@@ -1,5 +1,6 @@
 package com.blog.blogservice.service;
 
+import com.blog.blogservice.category.CategoryTree;
 import com.blog.blogservice.entity.Category;
 
 import java.util.List;
@@ -39,17 +40,23 @@ public interface CategoryService {
 
     /**
      * 获取所有分类
-     * @return 分类列表
+     * @return 分类列表，只读
      */
     List<Category> getAllCategories();
 
     /**
      * 根据父分类ID获取子分类
      * @param parentId 父分类ID
-     * @return 子分类列表
+     * @return 子分类列表，只读
      */
     List<Category> getCategoriesByParentId(Long parentId);
 
+    /**
+     * 获取分类树快照
+     * @return 当前的分类树，包含各分类及子树的文章数
+     */
+    CategoryTree getCategoryTree();
+
     /**
      * 根据分类名称获取分类
      * @param name 分类名称
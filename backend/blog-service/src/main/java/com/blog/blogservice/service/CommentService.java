@@ -1,6 +1,8 @@
 package com.blog.blogservice.service;
 
+import com.blog.blogservice.dto.CommentThread;
 import com.blog.blogservice.entity.Comment;
+import com.blog.blogservice.utils.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -54,6 +56,13 @@ public interface CommentService {
      */
     List<Comment> getCommentsByParentId(Long parentId);
 
+    /**
+     * 获取文章审核通过的整棵评论树
+     * @param articleId 文章ID
+     * @return 一级评论列表，回复嵌套在replies中
+     */
+    List<CommentThread> getCommentThread(Long articleId);
+
     /**
      * 根据用户ID获取评论列表
      * @param userId 用户ID
@@ -62,6 +71,24 @@ public interface CommentService {
      */
     Page<Comment> getCommentsByUserId(Long userId, Pageable pageable);
 
+    /**
+     * 按游标获取文章的评论列表
+     * @param articleId 文章ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 评论列表
+     */
+    CursorPage<Comment> getCommentsByArticleId(Long articleId, String cursor, int size);
+
+    /**
+     * 按游标获取用户的评论列表
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 评论列表
+     */
+    CursorPage<Comment> getCommentsByUserId(Long userId, String cursor, int size);
+
     /**
      * 审核评论
      * @param id 评论ID
@@ -2,7 +2,10 @@ package com.blog.blogservice.service;
 
 import com.blog.blogservice.entity.Tag;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 标签服务接口
@@ -57,6 +60,28 @@ public interface TagService {
      */
     List<Tag> getTagsByNames(List<String> names);
 
+    /**
+     * 获取经常与该标签同时使用的标签
+     * @param id 标签ID
+     * @param limit 最多返回的数量
+     * @return 标签列表，按同时出现的已发布文章数降序
+     */
+    List<Tag> getRelatedTags(Long id, int limit);
+
+    /**
+     * 把文章提交的标签解析为已保存的标签
+     * 带名称的按名称批量获取，不存在的自动创建；只带ID的按ID获取
+     * @param tags 文章提交的标签
+     * @return 已保存的标签
+     */
+    Set<Tag> resolveTags(Collection<Tag> tags);
+
+    /**
+     * 批量调整标签的文章数量
+     * @param deltas 标签ID -> 增量
+     */
+    void updateArticleCounts(Map<Long, Integer> deltas);
+
     /**
      * 检查标签名称是否存在
      * @param name 标签名称
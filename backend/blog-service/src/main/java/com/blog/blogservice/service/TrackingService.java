@@ -1,10 +1,15 @@
 package com.blog.blogservice.service;
 
+import com.blog.blogservice.dto.SessionDailyStats;
+import com.blog.blogservice.dto.TrackingEventRequest;
 import com.blog.blogservice.entity.TrackingEvent;
+import com.blog.blogservice.utils.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +26,13 @@ public interface TrackingService {
      */
     void trackEvent(String eventName, Long userId, Long articleId, Map<String, Object> properties);
 
+    /**
+     * 批量记录用户行为事件，同一批事件共用当前请求的IP和设备信息
+     * @param events 事件列表
+     * @return 进入写入队列的事件数量
+     */
+    int trackEvents(List<TrackingEventRequest> events);
+
     /**
      * 记录页面访问事件
      * @param pageUrl 页面URL
@@ -70,6 +82,43 @@ public interface TrackingService {
      */
     Page<TrackingEvent> getEventsByTimeRange(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
 
+    /**
+     * 按游标查询指定名称的事件列表
+     * @param eventName 事件名称
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 事件列表
+     */
+    CursorPage<TrackingEvent> getEventsByEventName(String eventName, String cursor, int size);
+
+    /**
+     * 按游标查询用户的事件列表
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 事件列表
+     */
+    CursorPage<TrackingEvent> getEventsByUserId(Long userId, String cursor, int size);
+
+    /**
+     * 按游标查询文章的事件列表
+     * @param articleId 文章ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 事件列表
+     */
+    CursorPage<TrackingEvent> getEventsByArticleId(Long articleId, String cursor, int size);
+
+    /**
+     * 按游标查询时间范围内的事件列表
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @return 事件列表
+     */
+    CursorPage<TrackingEvent> getEventsByTimeRange(LocalDateTime startTime, LocalDateTime endTime, String cursor, int size);
+
     /**
      * 统计指定时间范围内的事件数量
      * @param startTime 开始时间
@@ -90,15 +139,50 @@ public interface TrackingService {
     /**
      * 获取热门文章的访问统计
      * @param limit 返回的文章数量
-     * @param days 统计的天数
-     * @return 文章访问统计列表
+     * @param days 统计的天数，最多30天
+     * @return 文章ID -> 阅读量，按阅读量降序
      */
     Map<Long, Long> getPopularArticles(int limit, int days);
 
     /**
      * 获取用户活跃度统计
      * @param days 统计的天数
-     * @return 每日活跃用户数
+     * @return 每日页面访问量，按日期升序，没有访问的日期为0
      */
     Map<String, Long> getUserActivity(int days);
-}
\ No newline at end of file
+
+    /**
+     * 获取全站每日独立访客数（近似值）
+     * @param days 统计的天数（包含今天），最多30天
+     * @return 日期 -> 独立访客数，按日期升序
+     */
+    Map<String, Long> getDailyUniqueVisitors(int days);
+
+    /**
+     * 获取全站在整个时间窗口内的独立访客数（近似值）
+     * @param days 统计的天数（包含今天），最多30天
+     * @return 独立访客数，跨天访问的同一访客只计一次
+     */
+    Long getUniqueVisitors(int days);
+
+    /**
+     * 获取文章的独立访客数（近似值）
+     * @param articleId 文章ID
+     * @param days 统计的天数（包含今天），最多30天
+     * @return 独立访客数
+     */
+    Long getArticleUniqueVisitors(Long articleId, int days);
+
+    /**
+     * 获取会话统计
+     * @param days 统计的天数（包含今天）
+     * @return 按会话开始日期统计的会话数、跳出率、平均时长和平均页面数，按日期升序
+     */
+    List<SessionDailyStats> getSessionStats(int days);
+
+    /**
+     * 订阅实时活动，每秒推送一次上一秒的事件增量
+     * @return SSE连接
+     */
+    SseEmitter subscribeLiveActivity();
+}
@@ -1,17 +1,39 @@
 package com.blog.blogservice.service.impl;
 
+import com.blog.blogservice.category.CategoryTreeHolder;
+import com.blog.blogservice.counter.CounterFlusher;
+import com.blog.blogservice.dto.ArticleSearchResult;
+import com.blog.blogservice.dto.CategoryNode;
 import com.blog.blogservice.entity.Article;
+import com.blog.blogservice.entity.Tag;
+import com.blog.blogservice.recommend.HotArticleRanker;
+import com.blog.blogservice.recommend.TagIndex;
 import com.blog.blogservice.repository.ArticleRepository;
+import com.blog.blogservice.repository.projection.ArticleSearchHit;
+import com.blog.blogservice.repository.projection.ArticleSummary;
 import com.blog.blogservice.service.ArticleService;
+import com.blog.blogservice.service.TagService;
+import com.blog.blogservice.utils.Cursor;
+import com.blog.blogservice.utils.CursorPage;
+import com.blog.blogservice.utils.SearchUtils;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 文章服务实现类
@@ -22,6 +44,21 @@ public class ArticleServiceImpl implements ArticleService {
     @Autowired
     private ArticleRepository articleRepository;
 
+    @Autowired
+    private CounterFlusher counterFlusher;
+
+    @Autowired
+    private CategoryTreeHolder categoryTreeHolder;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Autowired
+    private HotArticleRanker hotArticleRanker;
+
     @Override
     @Transactional
     public Article createArticle(Article article) {
@@ -30,11 +67,16 @@ public class ArticleServiceImpl implements ArticleService {
         article.setViewCount(0L);
         article.setLikeCount(0L);
         article.setCommentCount(0L);
-        return articleRepository.save(article);
+        article.setTags(tagService.resolveTags(article.getTags()));
+        Article savedArticle = articleRepository.save(article);
+        tagService.updateArticleCounts(tagCountDeltas(null, savedArticle.getTags()));
+        indexTags(savedArticle);
+        return savedArticle;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "articles", key = "#id")
     public Article updateArticle(Long id, Article article) {
         Optional<Article> optionalArticle = articleRepository.findById(id);
         if (optionalArticle.isPresent()) {
@@ -44,11 +86,14 @@ public class ArticleServiceImpl implements ArticleService {
             existingArticle.setSummary(article.getSummary());
             existingArticle.setCoverImage(article.getCoverImage());
             existingArticle.setCategoryId(article.getCategoryId());
-            existingArticle.setTags(article.getTags());
+            Set<Tag> newTags = tagService.resolveTags(article.getTags());
+            tagService.updateArticleCounts(tagCountDeltas(existingArticle.getTags(), newTags));
+            existingArticle.setTags(newTags);
             existingArticle.setIsTop(article.getIsTop());
             existingArticle.setIsRecommend(article.getIsRecommend());
             existingArticle.setAllowComment(article.getAllowComment());
             existingArticle.setUpdatedTime(LocalDateTime.now());
+            indexTags(existingArticle);
             return articleRepository.save(existingArticle);
         }
         throw new RuntimeException("Article not found");
@@ -56,52 +101,153 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "articles", key = "#id")
     public void deleteArticle(Long id) {
-        if (articleRepository.existsById(id)) {
-            articleRepository.deleteById(id);
-        } else {
-            throw new RuntimeException("Article not found");
-        }
+        Article article = findArticle(id);
+        tagService.updateArticleCounts(tagCountDeltas(article.getTags(), null));
+        articleRepository.delete(article);
+        tagIndex.updateAfterCommit(id, List.of());
     }
 
+    /**
+     * 文章详情走读穿缓存，同一篇文章的并发未命中只回源一次；
+     * 阅读量、点赞量等计数在缓存有效期内允许有延迟
+     */
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "articles", key = "#id", sync = true)
     public Article getArticleById(Long id) {
-        Optional<Article> optionalArticle = articleRepository.findById(id);
-        return optionalArticle.orElseThrow(() -> new RuntimeException("Article not found"));
+        Article article = findArticle(id);
+        // 写入缓存前加载标签，序列化时不再依赖数据库会话
+        Hibernate.initialize(article.getTags());
+        return article;
     }
 
     @Override
-    public Page<Article> getArticlesByUserId(Long userId, Pageable pageable) {
-        return articleRepository.findByUserId(userId, pageable);
+    public Page<ArticleSummary> getArticlesByUserId(Long userId, Pageable pageable) {
+        return articleRepository.findSummaryByUserId(userId, pageable);
     }
 
     @Override
-    public Page<Article> getArticlesByCategoryId(Long categoryId, Pageable pageable) {
-        return articleRepository.findByCategoryId(categoryId, pageable);
+    public Page<ArticleSummary> getArticlesByCategoryId(Long categoryId, Pageable pageable) {
+        Optional<String> path = categoryPathOf(categoryId);
+        if (path.isPresent()) {
+            return articleRepository.findSummaryByCategoryPath(path.get(), pageable);
+        }
+        return articleRepository.findSummaryByCategoryId(categoryId, pageable);
     }
 
     @Override
-    public Page<Article> getHotArticles(Pageable pageable) {
-        // 只查询已发布的文章
-        return articleRepository.findByStatusOrderByViewCountDesc(2, pageable);
+    public Page<ArticleSummary> getHotArticles(Pageable pageable) {
+        // 按位置读取后台计算好的排行，只查询当前页的文章
+        List<Long> ranking = hotArticleRanker.getRanking();
+        int from = (int) Math.min(pageable.getOffset(), ranking.size());
+        int to = Math.min(from + pageable.getPageSize(), ranking.size());
+        return new PageImpl<>(findSummariesInOrder(ranking.subList(from, to)), pageable, ranking.size());
     }
 
     @Override
-    public Page<Article> getRecommendArticles(Pageable pageable) {
+    public Page<ArticleSummary> getRecommendArticles(Pageable pageable) {
         // 查询推荐且已发布的文章
-        return articleRepository.findByIsRecommendAndStatus(true, 2, pageable);
+        return articleRepository.findSummaryByIsRecommendAndStatus(true, 2, pageable);
+    }
+
+    @Override
+    public CursorPage<ArticleSummary> getArticlesByUserId(Long userId, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        List<ArticleSummary> rows = articleRepository.findSummaryByUserIdAfter(userId,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, article -> Cursor.encode(article.getUpdatedTime(), article.getId()));
+    }
+
+    @Override
+    public CursorPage<ArticleSummary> getArticlesByCategoryId(Long categoryId, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        LocalDateTime updatedTime = Cursor.timeValue(position, Cursor.MAX_TIME);
+        long id = Cursor.idValue(position, Long.MAX_VALUE);
+        Optional<String> path = categoryPathOf(categoryId);
+        List<ArticleSummary> rows = path.isPresent()
+                ? articleRepository.findSummaryByCategoryPathAfter(path.get(), updatedTime, id, CursorPage.limit(size))
+                : articleRepository.findSummaryByCategoryIdAfter(categoryId, updatedTime, id, CursorPage.limit(size));
+        return CursorPage.of(rows, size, article -> Cursor.encode(article.getUpdatedTime(), article.getId()));
     }
 
     @Override
-    public List<Article> getTopArticles() {
+    public CursorPage<ArticleSummary> getHotArticles(String cursor, int size) {
+        // 游标记录下一页在排行中的位置和上一页最后一篇文章，排行刷新后按文章重新定位
+        List<Long> ranking = hotArticleRanker.getRanking();
+        Cursor position = Cursor.decode(cursor);
+        int from = (int) Math.min(Math.max(Cursor.longValue(position, 0L), 0L), ranking.size());
+        if (position != null) {
+            int index = ranking.indexOf(Cursor.idValue(position, 0L));
+            if (index >= 0) {
+                from = index + 1;
+            }
+        }
+        int to = Math.min(from + size + 1, ranking.size());
+        List<ArticleSummary> rows = findSummariesInOrder(ranking.subList(from, to));
+        return CursorPage.of(rows, size, article -> Cursor.encode(ranking.indexOf(article.getId()) + 1, article.getId()));
+    }
+
+    @Override
+    public CursorPage<ArticleSummary> getRecommendArticles(String cursor, int size) {
+        // 查询推荐且已发布的文章
+        Cursor position = Cursor.decode(cursor);
+        List<ArticleSummary> rows = articleRepository.findRecommendSummaryAfter(true, 2,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, article -> Cursor.encode(article.getUpdatedTime(), article.getId()));
+    }
+
+    @Override
+    public List<ArticleSummary> getTopArticles() {
         // 查询置顶且已发布的文章
-        return articleRepository.findByIsTopAndStatusOrderByUpdatedTimeDesc(true, 2);
+        return articleRepository.findSummaryByIsTopAndStatusOrderByUpdatedTimeDesc(true, 2);
+    }
+
+    @Override
+    public Page<ArticleSearchResult> searchArticles(String keyword, Pageable pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            return Page.empty(pageable);
+        }
+        // 'simple' 分词会把连续的中日韩文字当作一个词，包含中日韩文字的关键词改用子串匹配
+        List<String> terms = SearchUtils.splitTerms(keyword);
+        boolean substring = SearchUtils.containsCjk(keyword);
+        String pattern = SearchUtils.likePattern(terms);
+        String grams = SearchUtils.searchGrams(terms);
+        List<ArticleSearchHit> hits = substring
+                ? articleRepository.searchPublishedBySubstring(grams, pattern, terms.get(0), pageable.getPageSize(), pageable.getOffset())
+                : articleRepository.searchPublished(keyword, pageable.getPageSize(), pageable.getOffset());
+        Map<Long, ArticleSummary> summaries = new HashMap<>();
+        if (!hits.isEmpty()) {
+            for (ArticleSummary summary : articleRepository.findSummaryByIdInAndStatus(hits.stream().map(ArticleSearchHit::getId).toList(), 2)) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+        List<ArticleSearchResult> results = new ArrayList<>(hits.size());
+        for (ArticleSearchHit hit : hits) {
+            ArticleSummary summary = summaries.get(hit.getId());
+            if (summary == null) {
+                continue;
+            }
+            // 高亮片段先做HTML转义，只保留高亮标签
+            if (substring) {
+                results.add(new ArticleSearchResult(summary, hit.getRank(), SearchUtils.highlight(hit.getTitleHighlight(), terms),
+                        SearchUtils.highlight(hit.getContentHighlight(), terms)));
+            } else {
+                results.add(new ArticleSearchResult(summary, hit.getRank(), SearchUtils.fromHeadline(hit.getTitleHighlight()),
+                        SearchUtils.fromHeadline(hit.getContentHighlight())));
+            }
+        }
+        // 结果不满一页时不再执行计数查询
+        return PageableExecutionUtils.getPage(results, pageable, () -> substring
+                ? articleRepository.countPublishedSubstringMatches(grams, pattern)
+                : articleRepository.countPublishedMatches(keyword));
     }
 
     @Override
-    public Page<Article> searchArticles(String keyword, Pageable pageable) {
-        // 根据标题搜索已发布的文章
-        return articleRepository.findByTitleContainingAndStatus(keyword, 2, pageable);
+    public List<ArticleSummary> getRelatedArticles(Long id, int limit) {
+        // 按相关度顺序返回
+        return findSummariesInOrder(new ArrayList<>(tagIndex.relatedArticles(id, limit).keySet()));
     }
 
     @Override
@@ -111,35 +257,103 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    @Transactional
     public void updateViewCount(Long id) {
-        Article article = getArticleById(id);
-        article.setViewCount(article.getViewCount() + 1);
-        articleRepository.save(article);
+        // 阅读量写入内存缓冲区，由CounterFlusher定时批量落库
+        counterFlusher.incrementViewCount(id);
     }
 
     @Override
     @Transactional
     public void likeArticle(Long id) {
-        Article article = getArticleById(id);
-        article.setLikeCount(article.getLikeCount() + 1);
-        articleRepository.save(article);
+        if (counterFlusher.isLikeCoalescing()) {
+            // 合并模式：点赞先进入缓冲区，每个刷写周期每篇文章只执行一条UPDATE
+            counterFlusher.incrementArticleLikeCount(id);
+            return;
+        }
+        if (articleRepository.incrementLikeCount(id, 1L) == 0) {
+            throw new RuntimeException("Article not found");
+        }
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "articles", key = "#id")
     public Article publishArticle(Long id) {
-        Article article = getArticleById(id);
+        Article article = findArticle(id);
         article.setStatus(2); // 已发布状态
         article.setPublishedTime(LocalDateTime.now());
+        indexTags(article);
         return articleRepository.save(article);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "articles", key = "#id")
     public Article unpublishArticle(Long id) {
-        Article article = getArticleById(id);
+        Article article = findArticle(id);
         article.setStatus(3); // 已下架状态
+        indexTags(article);
         return articleRepository.save(article);
     }
+
+    /**
+     * 从分类树快照中取分类路径，按路径前缀查询可以包含所有子分类下的文章
+     */
+    private Optional<String> categoryPathOf(Long categoryId) {
+        return categoryTreeHolder.get().findNode(categoryId).map(CategoryNode::getPath);
+    }
+
+    /**
+     * 按给定的ID顺序查询已发布文章的列表投影，已删除或撤回的文章跳过
+     * 热门排行和相关推荐可能还没刷新，撤回的文章在这里过滤掉
+     */
+    private List<ArticleSummary> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ArticleSummary> summaries = new HashMap<>();
+        for (ArticleSummary summary : articleRepository.findSummaryByIdInAndStatus(ids, 2)) {
+            summaries.put(summary.getId(), summary);
+        }
+        List<ArticleSummary> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ArticleSummary summary = summaries.get(id);
+            if (summary != null) {
+                results.add(summary);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 提交后更新标签索引，只有已发布的文章参与相关推荐
+     */
+    private void indexTags(Article article) {
+        List<Long> tagIds = Integer.valueOf(2).equals(article.getStatus()) && article.getTags() != null
+                ? article.getTags().stream().map(Tag::getId).toList()
+                : List.of();
+        tagIndex.updateAfterCommit(article.getId(), tagIds);
+    }
+
+    /**
+     * 计算文章标签变化带来的标签文章数增量
+     */
+    private static Map<Long, Integer> tagCountDeltas(Set<Tag> oldTags, Set<Tag> newTags) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        if (oldTags != null) {
+            oldTags.forEach(tag -> deltas.merge(tag.getId(), -1, Integer::sum));
+        }
+        if (newTags != null) {
+            newTags.forEach(tag -> deltas.merge(tag.getId(), 1, Integer::sum));
+        }
+        return deltas;
+    }
+
+    /**
+     * 从数据库加载文章，写操作必须使用此方法获取受管实体
+     */
+    private Article findArticle(Long id) {
+        Optional<Article> optionalArticle = articleRepository.findById(id);
+        return optionalArticle.orElseThrow(() -> new RuntimeException("Article not found"));
+    }
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.blog.blogservice.service.impl;
 
+import com.blog.blogservice.category.CategoryTree;
+import com.blog.blogservice.category.CategoryTreeHolder;
 import com.blog.blogservice.entity.Category;
 import com.blog.blogservice.repository.CategoryRepository;
 import com.blog.blogservice.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -20,8 +25,12 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryTreeHolder categoryTreeHolder;
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "categories", allEntries = true)
     public Category createCategory(Category category) {
         // 检查分类名称是否已存在
         if (categoryRepository.existsByName(category.getName())) {
@@ -30,11 +39,16 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCreatedTime(LocalDateTime.now());
         category.setUpdatedTime(LocalDateTime.now());
         category.setArticleCount(0);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        // 路径包含自身ID，保存拿到ID后再设置，提交时一并写入
+        savedCategory.setPath(parentPathOf(savedCategory.getParentId()) + savedCategory.getId() + "/");
+        categoryTreeHolder.refreshAfterCommit();
+        return savedCategory;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "categories", allEntries = true)
     public Category updateCategory(Long id, Category category) {
         Optional<Category> optionalCategory = categoryRepository.findById(id);
         if (optionalCategory.isPresent()) {
@@ -45,19 +59,37 @@ public class CategoryServiceImpl implements CategoryService {
                 throw new RuntimeException("Category name already exists");
             }
             
+            // 更换父分类时整棵子树的路径一起更新
+            String oldPath = existingCategory.getPath();
+            String newPath = null;
+            if (!Objects.equals(existingCategory.getParentId(), category.getParentId())) {
+                String parentPath = parentPathOf(category.getParentId());
+                if (oldPath != null && parentPath.startsWith(oldPath)) {
+                    throw new RuntimeException("Category cannot be moved under itself or its subcategories");
+                }
+                newPath = parentPath + id + "/";
+                existingCategory.setPath(newPath);
+            }
+
             existingCategory.setName(category.getName());
             existingCategory.setDescription(category.getDescription());
             existingCategory.setParentId(category.getParentId());
             existingCategory.setIcon(category.getIcon());
             existingCategory.setSort(category.getSort());
             existingCategory.setUpdatedTime(LocalDateTime.now());
-            return categoryRepository.save(existingCategory);
+            Category savedCategory = categoryRepository.save(existingCategory);
+            if (newPath != null && oldPath != null) {
+                categoryRepository.replacePathPrefix(oldPath, newPath);
+            }
+            categoryTreeHolder.refreshAfterCommit();
+            return savedCategory;
         }
         throw new RuntimeException("Category not found");
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "categories", allEntries = true)
     public void deleteCategory(Long id) {
         if (categoryRepository.existsById(id)) {
             // 检查是否有子分类
@@ -66,12 +98,14 @@ public class CategoryServiceImpl implements CategoryService {
                 throw new RuntimeException("Category has subcategories, cannot be deleted");
             }
             categoryRepository.deleteById(id);
+            categoryTreeHolder.refreshAfterCommit();
         } else {
             throw new RuntimeException("Category not found");
         }
     }
 
     @Override
+    @Cacheable(cacheNames = "categories", key = "#id")
     public Category getCategoryById(Long id) {
         Optional<Category> optionalCategory = categoryRepository.findById(id);
         return optionalCategory.orElseThrow(() -> new RuntimeException("Category not found"));
@@ -79,15 +113,21 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryTreeHolder.get().getCategories();
     }
 
     @Override
     public List<Category> getCategoriesByParentId(Long parentId) {
-        return categoryRepository.findByParentId(parentId);
+        return categoryTreeHolder.get().getChildren(parentId);
     }
 
     @Override
+    public CategoryTree getCategoryTree() {
+        return categoryTreeHolder.get();
+    }
+
+    @Override
+    @Cacheable(cacheNames = "categories", key = "'name:' + #name")
     public Category getCategoryByName(String name) {
         Optional<Category> optionalCategory = categoryRepository.findByName(name);
         return optionalCategory.orElseThrow(() -> new RuntimeException("Category not found"));
@@ -95,18 +135,36 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "categories", allEntries = true)
     public Category enableCategory(Long id) {
         Category category = getCategoryById(id);
         category.setStatus(1);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        categoryTreeHolder.refreshAfterCommit();
+        return savedCategory;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "categories", allEntries = true)
     public Category disableCategory(Long id) {
         Category category = getCategoryById(id);
         category.setStatus(0);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        categoryTreeHolder.refreshAfterCommit();
+        return savedCategory;
+    }
+
+    /**
+     * 父分类的路径，没有父分类或父分类不存在时按顶级分类处理
+     */
+    private String parentPathOf(Long parentId) {
+        if (parentId == null || parentId == CategoryTree.ROOT_ID) {
+            return "/";
+        }
+        return categoryRepository.findById(parentId)
+                .map(Category::getPath)
+                .orElse("/");
     }
 
     @Override
@@ -1,16 +1,29 @@
 package com.blog.blogservice.service.impl;
 
+import com.blog.blogservice.counter.CounterFlusher;
+import com.blog.blogservice.dto.CommentThread;
 import com.blog.blogservice.entity.Comment;
 import com.blog.blogservice.repository.CommentRepository;
+import com.blog.blogservice.repository.projection.CommentThreadRow;
 import com.blog.blogservice.service.CommentService;
+import com.blog.blogservice.utils.Cursor;
+import com.blog.blogservice.utils.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,8 +35,21 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private CounterFlusher counterFlusher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * 评论树显示的最大层级，更深的回复折叠到该层
+     */
+    @Value("${blog.comment.max-depth:5}")
+    private int maxDepth;
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "commentThreads", key = "#result.articleId")
     public Comment createComment(Comment comment) {
         comment.setCreatedTime(LocalDateTime.now());
         comment.setUpdatedTime(LocalDateTime.now());
@@ -32,11 +58,16 @@ public class CommentServiceImpl implements CommentService {
         if (comment.getStatus() == null) {
             comment.setStatus(0);
         }
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        if (savedComment.getStatus() == 1) {
+            counterFlusher.addCommentCount(savedComment.getArticleId(), 1);
+        }
+        return savedComment;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "commentThreads", key = "#result.articleId")
     public Comment updateComment(Long id, Comment comment) {
         Optional<Comment> optionalComment = commentRepository.findById(id);
         if (optionalComment.isPresent()) {
@@ -54,15 +85,13 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional
     public void deleteComment(Long id) {
-        if (commentRepository.existsById(id)) {
-            // 先删除子评论
-            List<Comment> replies = commentRepository.findByParentIdAndStatus(id, 1);
-            if (!replies.isEmpty()) {
-                for (Comment reply : replies) {
-                    deleteComment(reply.getId());
-                }
-            }
-            commentRepository.deleteById(id);
+        Optional<Comment> optionalComment = commentRepository.findById(id);
+        if (optionalComment.isPresent()) {
+            // 一条语句删除整棵子树，包括待审核和未通过的回复
+            Long articleId = optionalComment.get().getArticleId();
+            long approved = commentRepository.deleteSubtree(id);
+            counterFlusher.addCommentCount(articleId, -approved);
+            evictThread(articleId);
         } else {
             throw new RuntimeException("Comment not found");
         }
@@ -86,25 +115,82 @@ public class CommentServiceImpl implements CommentService {
         return commentRepository.findByParentIdAndStatus(parentId, 1);
     }
 
+    @Override
+    @Cacheable(cacheNames = "commentThreads", key = "#articleId", sync = true)
+    public List<CommentThread> getCommentThread(Long articleId) {
+        // 一次查询取出整棵树，按层级排序，父节点总在子节点之前，一趟即可组装
+        List<CommentThreadRow> rows = commentRepository.findApprovedThread(articleId, maxDepth);
+        Map<Long, CommentThread> nodes = new HashMap<>(rows.size() * 2);
+        List<CommentThread> roots = new ArrayList<>();
+        for (CommentThreadRow row : rows) {
+            CommentThread node = new CommentThread();
+            node.setId(row.getId());
+            node.setParentId(row.getParentId());
+            node.setDepth(row.getDepth());
+            node.setUserId(row.getUserId());
+            node.setNickname(row.getNickname());
+            node.setAvatar(row.getAvatar());
+            node.setContent(row.getContent());
+            node.setLikeCount(row.getLikeCount());
+            node.setCreatedTime(row.getCreatedTime());
+            nodes.put(node.getId(), node);
+
+            CommentThread parent = nodes.get(row.getDisplayParentId());
+            if (parent != null) {
+                parent.getReplies().add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        return roots;
+    }
+
     @Override
     public Page<Comment> getCommentsByUserId(Long userId, Pageable pageable) {
         return commentRepository.findByUserId(userId, pageable);
     }
 
+    @Override
+    public CursorPage<Comment> getCommentsByArticleId(Long articleId, String cursor, int size) {
+        // 只查询审核通过的评论
+        Cursor position = Cursor.decode(cursor);
+        List<Comment> rows = commentRepository.findByArticleIdAndStatusAfter(articleId, 1,
+                Cursor.timeValue(position, Cursor.MIN_TIME), Cursor.idValue(position, 0L), CursorPage.limit(size));
+        return CursorPage.of(rows, size, comment -> Cursor.encode(comment.getCreatedTime(), comment.getId()));
+    }
+
+    @Override
+    public CursorPage<Comment> getCommentsByUserId(Long userId, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        List<Comment> rows = commentRepository.findByUserIdAfter(userId,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, comment -> Cursor.encode(comment.getCreatedTime(), comment.getId()));
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "commentThreads", key = "#result.articleId")
     public Comment auditComment(Long id, Integer status) {
         Comment comment = getCommentById(id);
+        // 只有进出“审核通过”状态才影响文章评论量
+        int delta = (status == 1 ? 1 : 0) - (comment.getStatus() == 1 ? 1 : 0);
         comment.setStatus(status);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        counterFlusher.addCommentCount(savedComment.getArticleId(), delta);
+        return savedComment;
     }
 
     @Override
     @Transactional
     public void likeComment(Long id) {
-        Comment comment = getCommentById(id);
-        comment.setLikeCount(comment.getLikeCount() + 1);
-        commentRepository.save(comment);
+        if (counterFlusher.isLikeCoalescing()) {
+            // 合并模式：点赞先进入缓冲区，每个刷写周期每条评论只执行一条UPDATE
+            counterFlusher.incrementCommentLikeCount(id);
+            return;
+        }
+        if (commentRepository.incrementLikeCount(id, 1) == 0) {
+            throw new RuntimeException("Comment not found");
+        }
     }
 
     @Override
@@ -112,4 +198,14 @@ public class CommentServiceImpl implements CommentService {
         // 统计审核通过的评论数量
         return commentRepository.countByArticleIdAndStatus(articleId, 1);
     }
+
+    /**
+     * 清除文章的评论树缓存
+     */
+    private void evictThread(Long articleId) {
+        Cache cache = cacheManager.getCache("commentThreads");
+        if (cache != null) {
+            cache.evict(articleId);
+        }
+    }
 }
\ No newline at end of file
@@ -1,15 +1,30 @@
 package com.blog.blogservice.service.impl;
 
 import com.blog.blogservice.entity.Tag;
+import com.blog.blogservice.recommend.TagIndex;
 import com.blog.blogservice.repository.TagRepository;
 import com.blog.blogservice.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * 标签服务实现类
@@ -17,11 +32,31 @@ import java.util.Optional;
 @Service
 public class TagServiceImpl implements TagService {
 
+    /**
+     * 一条语句插入所有不存在的标签，已存在或被并发创建的由唯一约束跳过，只返回新插入的行
+     */
+    private static final String INSERT_MISSING_SQL = "INSERT INTO blog_tag (name, sort, article_count, created_time, updated_time) "
+            + "SELECT name, 0, 0, now(), now() FROM unnest(?) AS t(name) "
+            + "ON CONFLICT (name) DO NOTHING RETURNING id";
+
+    private static final String ARTICLE_COUNT_SQL =
+            "UPDATE blog_tag SET article_count = GREATEST(COALESCE(article_count, 0) + ?, 0) WHERE id = ?";
+
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TagIndex tagIndex;
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "tags", allEntries = true)
     public Tag createTag(Tag tag) {
         // 检查标签名称是否已存在
         if (tagRepository.existsByName(tag.getName())) {
@@ -35,6 +70,7 @@ public class TagServiceImpl implements TagService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "tags", allEntries = true)
     public Tag updateTag(Long id, Tag tag) {
         Optional<Tag> optionalTag = tagRepository.findById(id);
         if (optionalTag.isPresent()) {
@@ -57,6 +93,7 @@ public class TagServiceImpl implements TagService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "tags", allEntries = true)
     public void deleteTag(Long id) {
         if (tagRepository.existsById(id)) {
             // 检查标签是否有文章使用
@@ -71,17 +108,20 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Cacheable(cacheNames = "tags", key = "#id")
     public Tag getTagById(Long id) {
         Optional<Tag> optionalTag = tagRepository.findById(id);
         return optionalTag.orElseThrow(() -> new RuntimeException("Tag not found"));
     }
 
     @Override
+    @Cacheable(cacheNames = "tags", key = "'all'")
     public List<Tag> getAllTags() {
         return tagRepository.findAll();
     }
 
     @Override
+    @Cacheable(cacheNames = "tags", key = "'name:' + #name")
     public Tag getTagByName(String name) {
         Optional<Tag> optionalTag = tagRepository.findByName(name);
         return optionalTag.orElseThrow(() -> new RuntimeException("Tag not found"));
@@ -92,6 +132,77 @@ public class TagServiceImpl implements TagService {
         return tagRepository.findByNameIn(names);
     }
 
+    @Override
+    public List<Tag> getRelatedTags(Long id, int limit) {
+        Map<Long, Integer> related = tagIndex.relatedTags(id, limit);
+        if (related.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Tag> tags = new HashMap<>();
+        for (Tag tag : tagRepository.findAllById(related.keySet())) {
+            tags.put(tag.getId(), tag);
+        }
+        List<Tag> results = new ArrayList<>(related.size());
+        for (Long tagId : related.keySet()) {
+            Tag tag = tags.get(tagId);
+            if (tag != null) {
+                results.add(tag);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public Set<Tag> resolveTags(Collection<Tag> tags) {
+        Set<Tag> resolved = new HashSet<>();
+        if (tags == null || tags.isEmpty()) {
+            return resolved;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        List<Long> ids = new ArrayList<>();
+        for (Tag tag : tags) {
+            if (tag.getName() != null && !tag.getName().isBlank()) {
+                names.add(tag.getName().trim());
+            } else if (tag.getId() != null) {
+                ids.add(tag.getId());
+            }
+        }
+        if (!names.isEmpty()) {
+            String[] nameArray = names.toArray(new String[0]);
+            List<Long> created = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_MISSING_SQL);
+                statement.setArray(1, connection.createArrayOf("varchar", nameArray));
+                return statement;
+            }, (rs, rowNum) -> rs.getLong(1));
+            if (!created.isEmpty()) {
+                evictTags();
+            }
+            resolved.addAll(tagRepository.findByNameIn(new ArrayList<>(names)));
+        }
+        if (!ids.isEmpty()) {
+            resolved.addAll(tagRepository.findAllById(ids));
+        }
+        return resolved;
+    }
+
+    @Override
+    @Transactional
+    public void updateArticleCounts(Map<Long, Integer> deltas) {
+        // 按ID排序，并发修改同一批标签时按相同顺序加行锁，避免死锁
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (delta != 0) {
+                batchArgs.add(new Object[]{delta, id});
+            }
+        });
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ARTICLE_COUNT_SQL, batchArgs);
+        evictTags();
+    }
+
     @Override
     public boolean existsTagName(String name, Long id) {
         Optional<Tag> optionalTag = tagRepository.findByName(name);
@@ -101,4 +212,14 @@ public class TagServiceImpl implements TagService {
         }
         return false;
     }
+
+    /**
+     * 标签列表和详情中包含文章数，数量变化后清除标签缓存
+     */
+    private void evictTags() {
+        Cache cache = cacheManager.getCache("tags");
+        if (cache != null) {
+            cache.clear();
+        }
+    }
 }
\ No newline at end of file
@@ -1,23 +1,38 @@
 package com.blog.blogservice.service.impl;
 
+import com.blog.blogservice.dto.SessionDailyStats;
+import com.blog.blogservice.dto.TrackingEventRequest;
+import com.blog.blogservice.entity.TrackingDailyStat;
 import com.blog.blogservice.entity.TrackingEvent;
+import com.blog.blogservice.repository.TrackingDailyStatRepository;
 import com.blog.blogservice.repository.TrackingEventRepository;
+import com.blog.blogservice.repository.TrackingSessionRepository;
 import com.blog.blogservice.service.TrackingService;
+import com.blog.blogservice.tracking.LiveActivityHub;
+import com.blog.blogservice.tracking.PopularArticleTracker;
+import com.blog.blogservice.tracking.TrackingEventIngestor;
+import com.blog.blogservice.tracking.TrackingSessionizer;
+import com.blog.blogservice.tracking.UniqueVisitorTracker;
+import com.blog.blogservice.utils.Cursor;
+import com.blog.blogservice.utils.CursorPage;
+import com.blog.blogservice.utils.UserAgentParser;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 埋点服务实现类
@@ -25,49 +40,98 @@ import java.util.regex.Pattern;
 @Service
 public class TrackingServiceImpl implements TrackingService {
 
+    /**
+     * 客户端通过该请求头携带会话ID
+     */
+    private static final String SESSION_HEADER = "X-Session-Id";
+
+    /**
+     * 客户端可控字段的最大长度，与 TrackingEvent 的列定义保持一致
+     */
+    private static final int MAX_EVENT_NAME_LENGTH = 100;
+    private static final int MAX_PAGE_URL_LENGTH = 500;
+    private static final int MAX_PAGE_TITLE_LENGTH = 255;
+    private static final int MAX_IP_ADDRESS_LENGTH = 50;
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+
     @Autowired
     private TrackingEventRepository trackingEventRepository;
 
-    // 浏览器正则表达式
-    private static final Pattern BROWSER_PATTERN = Pattern.compile("(Firefox|Chrome|Safari|Edge|Opera)/(\\d+\\.\\d+)");
-    // 操作系统正则表达式
-    private static final Pattern OS_PATTERN = Pattern.compile("(Windows|Macintosh|Linux|Android|iOS)");
+    @Autowired
+    private TrackingEventIngestor trackingEventIngestor;
+
+    @Autowired
+    private TrackingDailyStatRepository trackingDailyStatRepository;
+
+    @Autowired
+    private TrackingSessionRepository trackingSessionRepository;
+
+    @Autowired
+    private PopularArticleTracker popularArticleTracker;
+
+    @Autowired
+    private UniqueVisitorTracker uniqueVisitorTracker;
+
+    @Autowired
+    private LiveActivityHub liveActivityHub;
 
     @Override
-    @Transactional
     public void trackEvent(String eventName, Long userId, Long articleId, Map<String, Object> properties) {
-        TrackingEvent event = new TrackingEvent();
-        event.setEventName(eventName);
-        event.setUserId(userId);
-        event.setArticleId(articleId);
-        event.setEventTime(LocalDateTime.now());
-        event.setProperties(properties);
+        // 请求线程只负责入队，由写入线程批量落库
+        submit(newEvent(eventName, userId, articleId, properties));
+    }
 
-        // 获取请求信息
+    @Override
+    public int trackEvents(List<TrackingEventRequest> events) {
+        // 同一批事件来自同一个客户端，请求信息只解析一次
+        TrackingEvent template = new TrackingEvent();
         HttpServletRequest request = getCurrentRequest();
         if (request != null) {
-            event.setIpAddress(getClientIp(request));
-            String userAgent = request.getHeader("User-Agent");
-            event.setUserAgent(userAgent);
-            
-            // 解析浏览器和操作系统信息
-            parseUserAgent(userAgent, event);
+            template.setIpAddress(getClientIp(request));
+            template.setUserAgent(request.getHeader("User-Agent"));
+            template.setSessionId(request.getHeader(SESSION_HEADER));
+            parseUserAgent(template.getUserAgent(), template);
         }
 
-        trackingEventRepository.save(event);
+        LocalDateTime now = LocalDateTime.now();
+        int accepted = 0;
+        for (TrackingEventRequest eventRequest : events) {
+            if (eventRequest.getEventName() == null || eventRequest.getEventName().isBlank()) {
+                continue;
+            }
+            TrackingEvent event = new TrackingEvent();
+            event.setEventName(eventRequest.getEventName());
+            event.setUserId(eventRequest.getUserId());
+            event.setArticleId(eventRequest.getArticleId());
+            event.setSessionId(eventRequest.getSessionId() != null ? eventRequest.getSessionId() : template.getSessionId());
+            event.setPageUrl(eventRequest.getPageUrl());
+            event.setPageTitle(eventRequest.getPageTitle());
+            // 不接受客户端时钟超前的时间
+            LocalDateTime eventTime = eventRequest.getEventTime();
+            event.setEventTime(eventTime != null && eventTime.isBefore(now) ? eventTime : now);
+            event.setProperties(eventRequest.getProperties());
+            event.setIpAddress(template.getIpAddress());
+            event.setUserAgent(template.getUserAgent());
+            event.setBrowser(template.getBrowser());
+            event.setOs(template.getOs());
+            if (submit(event)) {
+                accepted++;
+            }
+        }
+        return accepted;
     }
 
     @Override
-    @Transactional
     public void trackPageView(String pageUrl, Long userId, Long duration) {
         Map<String, Object> properties = new HashMap<>();
         properties.put("pageUrl", pageUrl);
         properties.put("duration", duration);
-        trackEvent("PAGE_VIEW", userId, null, properties);
+        TrackingEvent event = newEvent("PAGE_VIEW", userId, null, properties);
+        event.setPageUrl(pageUrl);
+        submit(event);
     }
 
     @Override
-    @Transactional
     public void trackArticleRead(Long articleId, Long userId, Long duration) {
         Map<String, Object> properties = new HashMap<>();
         properties.put("duration", duration);
@@ -94,6 +158,39 @@ public class TrackingServiceImpl implements TrackingService {
         return trackingEventRepository.findByEventTimeBetween(startTime, endTime, pageable);
     }
 
+    @Override
+    public CursorPage<TrackingEvent> getEventsByEventName(String eventName, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        List<TrackingEvent> rows = trackingEventRepository.findByEventNameAfter(eventName,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, event -> Cursor.encode(event.getEventTime(), event.getId()));
+    }
+
+    @Override
+    public CursorPage<TrackingEvent> getEventsByUserId(Long userId, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        List<TrackingEvent> rows = trackingEventRepository.findByUserIdAfter(userId,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, event -> Cursor.encode(event.getEventTime(), event.getId()));
+    }
+
+    @Override
+    public CursorPage<TrackingEvent> getEventsByArticleId(Long articleId, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        List<TrackingEvent> rows = trackingEventRepository.findByArticleIdAfter(articleId,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, event -> Cursor.encode(event.getEventTime(), event.getId()));
+    }
+
+    @Override
+    public CursorPage<TrackingEvent> getEventsByTimeRange(LocalDateTime startTime, LocalDateTime endTime, String cursor, int size) {
+        // 第一页从结束时间开始向前翻页，包含结束时间当刻的事件
+        Cursor position = Cursor.decode(cursor);
+        List<TrackingEvent> rows = trackingEventRepository.findByEventTimeAfter(startTime,
+                Cursor.timeValue(position, endTime), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(size));
+        return CursorPage.of(rows, size, event -> Cursor.encode(event.getEventTime(), event.getId()));
+    }
+
     @Override
     public Long countEventsByTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
         return trackingEventRepository.countByEventTimeBetween(startTime, endTime);
@@ -106,31 +203,95 @@ public class TrackingServiceImpl implements TrackingService {
 
     @Override
     public Map<Long, Long> getPopularArticles(int limit, int days) {
-        LocalDateTime endTime = LocalDateTime.now();
-        LocalDateTime startTime = endTime.minusDays(days);
-        
-        return new HashMap<>();
+        // 直接读取内存中的排行榜快照
+        return popularArticleTracker.top(limit, days);
     }
 
     @Override
     public Map<String, Long> getUserActivity(int days) {
-        Map<String, Long> activityMap = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDateTime date = now.minusDays(i);
-            String dateStr = date.format(formatter);
-            LocalDateTime startTime = date.withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endTime = date.withHour(23).withMinute(59).withSecond(59);
-            
-            Long count = trackingEventRepository.countByEventNameAndEventTimeBetween("PAGE_VIEW", startTime, endTime);
-            activityMap.put(dateStr, count);
+
+        // 从日汇总表一次查出整个窗口，没有访问的日期补0，按日期升序返回
+        Map<String, Long> activityMap = new LinkedHashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            activityMap.put(date.format(formatter), 0L);
+        }
+        for (TrackingDailyStat stat : trackingDailyStatRepository.findByEventNameAndStatDateBetween("PAGE_VIEW", startDate, endDate)) {
+            activityMap.put(stat.getStatDate().format(formatter), stat.getEventCount());
         }
-        
         return activityMap;
     }
 
+    @Override
+    public Map<String, Long> getDailyUniqueVisitors(int days) {
+        return uniqueVisitorTracker.dailySiteVisitors(days);
+    }
+
+    @Override
+    public Long getUniqueVisitors(int days) {
+        return uniqueVisitorTracker.siteVisitors(days);
+    }
+
+    @Override
+    public Long getArticleUniqueVisitors(Long articleId, int days) {
+        return uniqueVisitorTracker.articleVisitors(articleId, days);
+    }
+
+    @Override
+    public List<SessionDailyStats> getSessionStats(int days) {
+        // 只读会话汇总表，不扫描原始事件
+        LocalDate today = LocalDate.now();
+        return trackingSessionRepository.findDailyStats(today.minusDays(days - 1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public SseEmitter subscribeLiveActivity() {
+        return liveActivityHub.subscribe();
+    }
+
+    /**
+     * 创建事件并填充当前请求的IP、设备和会话信息
+     */
+    private TrackingEvent newEvent(String eventName, Long userId, Long articleId, Map<String, Object> properties) {
+        TrackingEvent event = new TrackingEvent();
+        event.setEventName(eventName);
+        event.setUserId(userId);
+        event.setArticleId(articleId);
+        event.setEventTime(LocalDateTime.now());
+        event.setProperties(properties);
+
+        // 获取请求信息
+        HttpServletRequest request = getCurrentRequest();
+        if (request != null) {
+            event.setIpAddress(getClientIp(request));
+            String userAgent = request.getHeader("User-Agent");
+            event.setUserAgent(userAgent);
+            event.setSessionId(request.getHeader(SESSION_HEADER));
+
+            // 解析浏览器和操作系统信息
+            parseUserAgent(userAgent, event);
+        }
+        return event;
+    }
+
+    /**
+     * 按列长度截断客户端可控的字段后入队，避免单条超长数据导致整批写入失败
+     */
+    private boolean submit(TrackingEvent event) {
+        event.setEventName(StringUtils.truncate(event.getEventName(), MAX_EVENT_NAME_LENGTH));
+        // 不合法的会话ID直接丢弃，事件照常记录，只是不参与会话汇总
+        if (event.getSessionId() != null && !TrackingSessionizer.isValidSessionId(event.getSessionId())) {
+            event.setSessionId(null);
+        }
+        event.setPageUrl(StringUtils.truncate(event.getPageUrl(), MAX_PAGE_URL_LENGTH));
+        event.setPageTitle(StringUtils.truncate(event.getPageTitle(), MAX_PAGE_TITLE_LENGTH));
+        event.setIpAddress(StringUtils.truncate(event.getIpAddress(), MAX_IP_ADDRESS_LENGTH));
+        event.setUserAgent(StringUtils.truncate(event.getUserAgent(), MAX_USER_AGENT_LENGTH));
+        return trackingEventIngestor.submit(event);
+    }
+
     /**
      * 获取当前请求对象
      */
@@ -169,20 +330,9 @@ public class TrackingServiceImpl implements TrackingService {
      * 解析User-Agent字符串，提取浏览器和操作系统信息
      */
     private void parseUserAgent(String userAgent, TrackingEvent event) {
-        if (userAgent == null) {
-            return;
-        }
-
-        // 解析浏览器信息
-        Matcher browserMatcher = BROWSER_PATTERN.matcher(userAgent);
-        if (browserMatcher.find()) {
-            event.setBrowser(browserMatcher.group(1) + " " + browserMatcher.group(2));
-        }
-
-        // 解析操作系统信息
-        Matcher osMatcher = OS_PATTERN.matcher(userAgent);
-        if (osMatcher.find()) {
-            event.setOs(osMatcher.group(1));
-        }
+        // 解析结果按User-Agent缓存
+        UserAgentParser.Result result = UserAgentParser.parse(userAgent);
+        event.setBrowser(result.getBrowser());
+        event.setOs(result.getOs());
     }
 }
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.dto.LiveActivity;
+import com.blog.blogservice.entity.TrackingEvent;
+import com.blog.blogservice.exception.BlogException;
+import com.blog.blogservice.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 实时活动推送
+ * 写入线程把每批事件累加到当前一秒的计数中，每秒统一计算一次并序列化，再分发给所有订阅者。
+ * 每个订阅者有独立的有界队列和发送任务，队列写满说明客户端跟不上，直接断开，不影响其他订阅者和写入线程。
+ * SseEmitter的send和complete使用同一把锁，断开时定时任务只做标记，由订阅者自己的发送任务调用complete，
+ * 单次发送最长阻塞由server.tomcat.connection-timeout（写超时）限制，发送线程池随阻塞的发送临时扩容。
+ */
+@Component
+public class LiveActivityHub implements TrackingCommitListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveActivityHub.class);
+
+    private static final String EVENT_NAME = "activity";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.live.max-subscribers:200}")
+    private int maxSubscribers;
+
+    /**
+     * 每个订阅者最多积压的推送条数
+     */
+    @Value("${blog.live.subscriber-buffer:16}")
+    private int subscriberBuffer;
+
+    @Value("${blog.live.top-size:10}")
+    private int topSize;
+
+    /**
+     * 连接超时时间（毫秒），客户端断开后由EventSource自动重连
+     */
+    @Value("${blog.live.timeout:1800000}")
+    private long timeout;
+
+    @Value("${blog.live.sender-threads:4}")
+    private int senderThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private ExecutorService sender;
+
+    /**
+     * 当前一秒的计数，写入线程累加，定时任务取走
+     */
+    private Window current = new Window();
+
+    @PostConstruct
+    public void init() {
+        // 常驻senderThreads个线程，慢客户端占住线程时临时增加，每个订阅者同时最多占用一个线程
+        sender = new ThreadPoolExecutor(senderThreads, Math.max(senderThreads, maxSubscribers),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "live-activity-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gaugeCollectionSize("blog.live.subscribers", Tags.empty(), subscribers);
+    }
+
+    /**
+     * 新增订阅者
+     * @return SSE连接
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BlogException("Too many live activity subscribers", ErrorCode.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, subscriberBuffer);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @Override
+    public void onCommitted(List<TrackingEvent> events) {
+        // 没有订阅者时不做统计
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            current.add(events);
+        }
+    }
+
+    /**
+     * 每秒计算一次增量并推送给所有订阅者
+     */
+    @Scheduled(fixedRate = 1000)
+    public void publish() {
+        Window window;
+        synchronized (this) {
+            window = current;
+            current = new Window();
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(window.toActivity(System.currentTimeMillis(), topSize));
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize live activity", e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(payload)) {
+                // 客户端消费太慢，断开连接，由客户端重连；这里调用complete会等待阻塞中的send
+                subscriber.dead = true;
+                subscribers.remove(subscriber);
+                meterRegistry.counter("blog.live.subscribers.dropped").increment();
+            }
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * 订阅者没有发送任务时提交一个，线程池满时等下一次推送再提交
+     */
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * 把订阅者队列中的推送依次发出，同一订阅者同时只有一个发送任务
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            String payload;
+            while (!subscriber.dead && (payload = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(payload));
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscriber.dead = true;
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        if (subscriber.dead) {
+            subscriber.emitter.complete();
+            return;
+        }
+        // 释放发送标记后可能又有新的推送入队
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<String> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        /**
+         * 已断开，发送任务不再发送并负责complete
+         */
+        private volatile boolean dead;
+
+        Subscriber(SseEmitter emitter, int buffer) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(buffer);
+        }
+    }
+
+    /**
+     * 一秒内的计数
+     */
+    private static final class Window {
+
+        private final Map<String, Long> events = new HashMap<>();
+        private final Map<Long, Long> articles = new HashMap<>();
+        private final Set<String> visitors = new HashSet<>();
+        private long total;
+
+        void add(List<TrackingEvent> batch) {
+            for (TrackingEvent event : batch) {
+                total++;
+                events.merge(event.getEventName(), 1L, Long::sum);
+                if (event.getArticleId() != null) {
+                    articles.merge(event.getArticleId(), 1L, Long::sum);
+                }
+                String visitor = UniqueVisitorTracker.visitorOf(event);
+                if (visitor != null) {
+                    visitors.add(visitor);
+                }
+            }
+        }
+
+        LiveActivity toActivity(long timestamp, int topSize) {
+            List<Map.Entry<Long, Long>> ranked = new ArrayList<>(articles.entrySet());
+            ranked.sort(Map.Entry.<Long, Long>comparingByValue().reversed());
+            Map<Long, Long> top = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entry : ranked.subList(0, Math.min(topSize, ranked.size()))) {
+                top.put(entry.getKey(), entry.getValue());
+            }
+            return new LiveActivity(timestamp, total, events, top, visitors.size());
+        }
+    }
+}
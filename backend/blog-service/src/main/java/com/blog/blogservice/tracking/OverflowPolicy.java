@@ -0,0 +1,22 @@
+package com.blog.blogservice.tracking;
+
+/**
+ * 埋点队列写满时的处理策略
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 丢弃新到达的事件，请求线程不等待
+     */
+    DROP_NEWEST,
+
+    /**
+     * 丢弃队列中最早的事件，为新事件腾出位置
+     */
+    DROP_OLDEST,
+
+    /**
+     * 请求线程等待队列空出位置，超过等待时间后丢弃新事件
+     */
+    BLOCK
+}
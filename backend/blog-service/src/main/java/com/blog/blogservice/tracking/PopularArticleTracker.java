@@ -0,0 +1,212 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 热门文章统计
+ * 每个实例用Space-Saving统计本分钟内的文章阅读，每分钟把结果按统计开始的时间累加到Redis的小时和天有序集合，
+ * 刷新时把最近24个小时和30天的key各读取一次，在内存中累加出1~30天各个窗口的排行榜快照，查询直接读取快照。
+ * 1天窗口按最近24小时滑动，更长的窗口按自然日对齐（包含今天）。
+ */
+@Component
+public class PopularArticleTracker implements TrackingCommitListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularArticleTracker.class);
+
+    public static final int MAX_DAYS = 30;
+
+    private static final int HOURS_PER_DAY = 24;
+
+    private static final String EVENT_NAME = "ARTICLE_READ";
+    private static final String HOUR_KEY_PREFIX = "blog:popular:hour:";
+    private static final String DAY_KEY_PREFIX = "blog:popular:day:";
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Duration BUCKET_TTL = Duration.ofDays(MAX_DAYS + 1);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${blog.popular.sketch-capacity:1000}")
+    private int sketchCapacity;
+
+    @Value("${blog.popular.top-size:100}")
+    private int topSize;
+
+    /**
+     * 本分钟的统计，写入线程累加，定时任务取走
+     */
+    private SpaceSavingSketch currentMinute;
+
+    /**
+     * 本分钟统计的开始时间，决定结果计入哪个小时和哪一天
+     */
+    private LocalDateTime currentMinuteStart;
+
+    /**
+     * 天数 -> 按阅读量降序的排行榜，整体替换
+     */
+    private volatile Map<Integer, Map<Long, Long>> snapshots = Collections.emptyMap();
+
+    @Override
+    public void onCommitted(List<TrackingEvent> events) {
+        synchronized (this) {
+            for (TrackingEvent event : events) {
+                if (event.getArticleId() != null && EVENT_NAME.equals(event.getEventName())) {
+                    if (currentMinute == null) {
+                        currentMinute = new SpaceSavingSketch(sketchCapacity);
+                        currentMinuteStart = LocalDateTime.now();
+                    }
+                    currentMinute.add(event.getArticleId(), 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询热门文章
+     * @param limit 返回数量，最多为快照保留的数量
+     * @param days 统计天数，1~30
+     * @return 文章ID -> 阅读量，按阅读量降序
+     */
+    public Map<Long, Long> top(int limit, int days) {
+        Map<Long, Long> ranking = snapshots.getOrDefault(Math.max(1, Math.min(days, MAX_DAYS)), Collections.emptyMap());
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : ranking.entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 每分钟把本实例的统计累加到Redis，然后刷新所有窗口的排行榜快照
+     */
+    @Scheduled(fixedRateString = "${blog.popular.refresh-interval:60000}")
+    public void refresh() {
+        try {
+            flush();
+            snapshots = loadSnapshots(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh popular articles", e);
+        }
+    }
+
+    private void flush() {
+        SpaceSavingSketch sketch;
+        LocalDateTime start;
+        synchronized (this) {
+            sketch = currentMinute;
+            start = currentMinuteStart;
+            currentMinute = null;
+            currentMinuteStart = null;
+        }
+        if (sketch == null || sketch.isEmpty()) {
+            return;
+        }
+        // 按统计开始的时间归档，避免午夜前最后一分钟的阅读被计入第二天
+        String hourKey = HOUR_KEY_PREFIX + start.format(HOUR_FORMAT);
+        String dayKey = DAY_KEY_PREFIX + start.format(DAY_FORMAT);
+        Map<Long, Long> counts = sketch.counts();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            counts.forEach((articleId, count) -> {
+                String member = String.valueOf(articleId);
+                redis.zIncrBy(hourKey, count, member);
+                redis.zIncrBy(dayKey, count, member);
+            });
+            redis.expire(hourKey, BUCKET_TTL.getSeconds());
+            redis.expire(dayKey, BUCKET_TTL.getSeconds());
+            return null;
+        });
+    }
+
+    private Map<Integer, Map<Long, Long>> loadSnapshots(LocalDateTime now) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < HOURS_PER_DAY; i++) {
+            keys.add(HOUR_KEY_PREFIX + now.minusHours(i).format(HOUR_FORMAT));
+        }
+        for (int i = 0; i < MAX_DAYS; i++) {
+            keys.add(DAY_KEY_PREFIX + now.minusDays(i).format(DAY_FORMAT));
+        }
+        // 每个小时和天的key只读取一次，各个窗口在内存中累加
+        List<Object> buckets = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            keys.forEach(key -> redis.zRangeWithScores(key, 0, -1));
+            return null;
+        });
+        Map<Integer, Map<Long, Long>> loaded = new HashMap<>();
+        // 最近24小时
+        Map<Long, Long> counts = new HashMap<>();
+        for (int i = 0; i < HOURS_PER_DAY; i++) {
+            addBucket(counts, buckets.get(i));
+        }
+        loaded.put(1, rank(counts));
+        // 最近N个自然日，在N-1天的基础上再加一天
+        counts = new HashMap<>();
+        for (int days = 1; days <= MAX_DAYS; days++) {
+            addBucket(counts, buckets.get(HOURS_PER_DAY + days - 1));
+            if (days > 1) {
+                loaded.put(days, rank(counts));
+            }
+        }
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addBucket(Map<Long, Long> counts, Object bucket) {
+        if (bucket == null) {
+            return;
+        }
+        for (ZSetOperations.TypedTuple<String> tuple : (Set<ZSetOperations.TypedTuple<String>>) bucket) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                counts.merge(Long.valueOf(tuple.getValue()), tuple.getScore().longValue(), Long::sum);
+            }
+        }
+    }
+
+    /**
+     * 取阅读量最高的topSize篇，按阅读量降序
+     */
+    private Map<Long, Long> rank(Map<Long, Long> counts) {
+        Map<Long, Long> ranking = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(topSize)
+                .forEach(entry -> ranking.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(ranking);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush popular articles on shutdown", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.blog.blogservice.tracking;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving频繁项统计
+ * 最多保留capacity个计数器，满了以后新元素替换计数最小的元素并继承其计数，
+ * 真实频次超过 总数/capacity 的元素一定会被保留，计数只会偏大不会偏小。
+ * 非线程安全，由调用方加锁。
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+
+    /**
+     * 元素 -> 计数
+     */
+    private final Map<Long, Long> counts = new HashMap<>();
+
+    /**
+     * 计数 -> 该计数下的元素，用于O(log n)找到最小计数的元素
+     */
+    private final TreeMap<Long, Set<Long>> buckets = new TreeMap<>();
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 增加元素计数
+     * @param item 元素
+     * @param weight 增量
+     */
+    public void add(long item, long weight) {
+        Long current = counts.get(item);
+        if (current != null) {
+            removeFromBucket(item, current);
+            put(item, current + weight);
+            return;
+        }
+        if (counts.size() < capacity) {
+            put(item, weight);
+            return;
+        }
+        // 替换计数最小的元素
+        Map.Entry<Long, Set<Long>> min = buckets.firstEntry();
+        Long victim = min.getValue().iterator().next();
+        removeFromBucket(victim, min.getKey());
+        counts.remove(victim);
+        put(item, min.getKey() + weight);
+    }
+
+    /**
+     * 当前所有计数器的副本
+     */
+    public Map<Long, Long> counts() {
+        return new HashMap<>(counts);
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    private void put(long item, long count) {
+        counts.put(item, count);
+        buckets.computeIfAbsent(count, c -> new LinkedHashSet<>()).add(item);
+    }
+
+    private void removeFromBucket(long item, long count) {
+        Set<Long> bucket = buckets.get(count);
+        bucket.remove(item);
+        if (bucket.isEmpty()) {
+            buckets.remove(count);
+        }
+    }
+}
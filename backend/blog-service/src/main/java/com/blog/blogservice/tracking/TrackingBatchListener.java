@@ -0,0 +1,20 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+
+import java.util.List;
+
+/**
+ * 埋点批次监听器
+ * 每批事件写入后在同一事务内回调，抛出异常会使整批写入回滚，只用于写数据库的统计；
+ * 整批写入失败时会逐条重试，此时每次回调只包含一条事件，同一事件可能被回调多次。
+ * 只改内存状态的统计使用 {@link TrackingCommitListener}
+ */
+public interface TrackingBatchListener {
+
+    /**
+     * 一批事件已写入
+     * @param events 本批事件
+     */
+    void onBatch(List<TrackingEvent> events);
+}
@@ -0,0 +1,19 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+
+import java.util.List;
+
+/**
+ * 埋点提交监听器
+ * 每批事件所在的事务提交后回调，适合只改内存状态的统计；
+ * 回滚的事件不会回调，整批失败后逐条重试时每条事件也只在写入成功后回调一次，不会重复计数
+ */
+public interface TrackingCommitListener {
+
+    /**
+     * 一批事件已提交
+     * @param events 本批事件
+     */
+    void onCommitted(List<TrackingEvent> events);
+}
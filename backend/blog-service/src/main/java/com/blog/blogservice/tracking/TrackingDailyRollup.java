@@ -0,0 +1,41 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 埋点日汇总
+ * 把每批事件按（日期，事件名称）聚合后累加到汇总表
+ */
+@Component
+public class TrackingDailyRollup implements TrackingBatchListener {
+
+    private static final String UPSERT_SQL = "INSERT INTO blog_tracking_daily_stat (stat_date, event_name, event_count) VALUES (?, ?, ?) "
+            + "ON CONFLICT (stat_date, event_name) DO UPDATE SET event_count = blog_tracking_daily_stat.event_count + EXCLUDED.event_count";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void onBatch(List<TrackingEvent> events) {
+        // 按主键排序后写入，多个实例并发更新同一行时不会互相死锁
+        Map<LocalDate, Map<String, Long>> counts = new TreeMap<>();
+        for (TrackingEvent event : events) {
+            counts.computeIfAbsent(event.getEventTime().toLocalDate(), date -> new TreeMap<>())
+                    .merge(event.getEventName(), 1L, Long::sum);
+        }
+        List<Object[]> batchArgs = new ArrayList<>();
+        counts.forEach((date, byName) -> byName.forEach((eventName, count) ->
+                batchArgs.add(new Object[]{Date.valueOf(date), eventName, count})));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+    }
+}
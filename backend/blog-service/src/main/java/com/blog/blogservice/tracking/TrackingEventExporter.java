@@ -0,0 +1,372 @@
+package com.blog.blogservice.tracking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 埋点事件列式导出
+ * 每天把已结束日期的事件按天写成ZSTD压缩的Arrow IPC文件，目录按 event_date=yyyy-MM-dd 分区，
+ * 离线分析直接读取文件，不再通过分页接口扫描线上数据库。
+ * 文件尾记录导出时的行数和最大ID，客户端延迟上报的事件落到已导出的日期后，下次检查时重新导出该日期。
+ * 导出在单独的线程中执行，不占用定时任务线程。
+ */
+@Component
+public class TrackingEventExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingEventExporter.class);
+
+    private static final String FILE_NAME = "events.arrow";
+
+    private static final String SELECT_DAY = "SELECT id, event_name, user_id, article_id, session_id, page_url, page_title, "
+            + "ip_address, user_agent, browser, os, event_time, properties::text AS properties FROM blog_tracking_event "
+            + "WHERE event_time >= ? AND event_time < ?";
+
+    private static final String COUNT_DAY = "SELECT count(*), coalesce(max(id), 0) FROM blog_tracking_event "
+            + "WHERE event_time >= ? AND event_time < ?";
+
+    /**
+     * 文件尾元数据中记录导出内容的键
+     */
+    private static final String EVENT_DATE_KEY = "event_date";
+    private static final String ROW_COUNT_KEY = "row_count";
+    private static final String MAX_ID_KEY = "max_id";
+
+    /**
+     * properties以JSON文本导出，event_time与库中一致为不带时区的本地时间
+     */
+    private static final Schema SCHEMA = new Schema(List.of(
+            new Field("id", FieldType.notNullable(new ArrowType.Int(64, true)), null),
+            new Field("event_name", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+            Field.nullable("user_id", new ArrowType.Int(64, true)),
+            Field.nullable("article_id", new ArrowType.Int(64, true)),
+            Field.nullable("session_id", ArrowType.Utf8.INSTANCE),
+            Field.nullable("page_url", ArrowType.Utf8.INSTANCE),
+            Field.nullable("page_title", ArrowType.Utf8.INSTANCE),
+            Field.nullable("ip_address", ArrowType.Utf8.INSTANCE),
+            Field.nullable("user_agent", ArrowType.Utf8.INSTANCE),
+            Field.nullable("browser", ArrowType.Utf8.INSTANCE),
+            Field.nullable("os", ArrowType.Utf8.INSTANCE),
+            new Field("event_time", FieldType.notNullable(new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)), null),
+            Field.nullable("properties", ArrowType.Utf8.INSTANCE)));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.tracking.export.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blog.tracking.export.dir:/tmp/blog/exports/tracking}")
+    private String exportDir;
+
+    /**
+     * 每次检查最近多少天的导出文件是否缺失或过期
+     */
+    @Value("${blog.tracking.export.lookback-days:7}")
+    private int lookbackDays;
+
+    /**
+     * 服务端游标每次取回的行数
+     */
+    @Value("${blog.tracking.export.fetch-size:5000}")
+    private int fetchSize;
+
+    /**
+     * 每个Arrow记录批次的行数
+     */
+    @Value("${blog.tracking.export.batch-rows:65536}")
+    private int batchRows;
+
+    private ExecutorService exportExecutor;
+
+    @PostConstruct
+    public void init() {
+        exportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 定时提交导出任务，导出可能持续较长时间，放在单独的线程中执行
+     */
+    @Scheduled(cron = "${blog.tracking.export.cron:0 30 2 * * *}")
+    public void scheduleExport() {
+        if (enabled) {
+            exportExecutor.execute(this::exportStaleDays);
+        }
+    }
+
+    /**
+     * 导出最近几天中没有文件或文件已过期的日期，当天的数据等到第二天再导出
+     */
+    public void exportStaleDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (LocalDate day = yesterday.minusDays(lookbackDays - 1); !day.isAfter(yesterday); day = day.plusDays(1)) {
+            try {
+                if (!isUpToDate(day)) {
+                    export(day);
+                }
+            } catch (RuntimeException | LinkageError e) {
+                // Arrow初始化失败时抛出的是Error，例如启动参数缺少 --add-opens=java.base/java.nio=ALL-UNNAMED
+                logger.error("Failed to export tracking events of {}", day, e);
+            }
+        }
+    }
+
+    /**
+     * 文件中记录的行数和最大ID与库中一致时不需要重新导出
+     */
+    private boolean isUpToDate(LocalDate day) {
+        Path file = fileOf(day);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        Map<String, String> written = readMetadata(file);
+        Map<String, String> current = jdbcTemplate.queryForObject(COUNT_DAY, (rs, rowNum) -> Map.of(
+                        ROW_COUNT_KEY, String.valueOf(rs.getLong(1)), MAX_ID_KEY, String.valueOf(rs.getLong(2))),
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        return Objects.equals(written.get(ROW_COUNT_KEY), current.get(ROW_COUNT_KEY))
+                && Objects.equals(written.get(MAX_ID_KEY), current.get(MAX_ID_KEY));
+    }
+
+    private Map<String, String> readMetadata(Path file) {
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator, CommonsCompressionFactory.INSTANCE)) {
+            // 读取文件尾后元数据才可用
+            reader.getRecordBlocks();
+            return reader.getMetaData();
+        } catch (IOException e) {
+            // 文件损坏时重新导出
+            logger.warn("Failed to read {}", file, e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * 导出指定日期的事件，已存在的文件会被覆盖
+     * @param day 日期
+     * @return 导出的事件数量
+     */
+    public long export(LocalDate day) {
+        Path target = fileOf(day);
+        Path temp = target.resolveSibling(FILE_NAME + ".tmp");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long rows;
+        try {
+            Files.createDirectories(target.getParent());
+            rows = writeDay(day, temp);
+            // 写完再原子替换，读取方不会看到写了一半的文件
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + target, e);
+        } finally {
+            // 成功时临时文件已经移走，失败时删掉写了一半的文件
+            deleteTemp(temp);
+            sample.stop(meterRegistry.timer("blog.tracking.export"));
+        }
+        meterRegistry.counter("blog.tracking.export.rows").increment(rows);
+        logger.info("Exported {} tracking events of {} to {}", rows, day, target);
+        return rows;
+    }
+
+    private long writeDay(LocalDate day, Path file) throws IOException {
+        // 文件尾在end()时才写出，行数和最大ID在写完所有批次后补入
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(EVENT_DATE_KEY, day.toString());
+        try (BufferAllocator allocator = new RootAllocator();
+             VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             ArrowFileWriter writer = new ArrowFileWriter(root, null, channel, metadata,
+                     IpcOption.DEFAULT, CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD)) {
+            writer.start();
+            BatchAppender appender = new BatchAppender(root, writer);
+            // PostgreSQL只在事务内按fetchSize分批取数，否则会把整天的结果一次读入内存
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_DAY);
+                statement.setFetchSize(fetchSize);
+                statement.setObject(1, day.atStartOfDay());
+                statement.setObject(2, day.plusDays(1).atStartOfDay());
+                return statement;
+            }, appender::append));
+            appender.flush();
+            metadata.put(ROW_COUNT_KEY, String.valueOf(appender.total));
+            metadata.put(MAX_ID_KEY, String.valueOf(appender.maxId));
+            writer.end();
+            return appender.total;
+        }
+    }
+
+    private void deleteTemp(Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}", temp, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdownNow();
+    }
+
+    private Path fileOf(LocalDate day) {
+        return Paths.get(exportDir, "event_date=" + day, FILE_NAME);
+    }
+
+    /**
+     * 把结果集逐行写入向量，攒满一个批次就写出并复用同一组向量
+     */
+    private final class BatchAppender {
+
+        private final VectorSchemaRoot root;
+        private final ArrowFileWriter writer;
+        private final BigIntVector id;
+        private final VarCharVector eventName;
+        private final BigIntVector userId;
+        private final BigIntVector articleId;
+        private final VarCharVector sessionId;
+        private final VarCharVector pageUrl;
+        private final VarCharVector pageTitle;
+        private final VarCharVector ipAddress;
+        private final VarCharVector userAgent;
+        private final VarCharVector browser;
+        private final VarCharVector os;
+        private final TimeStampMicroVector eventTime;
+        private final VarCharVector properties;
+        private int rows;
+        private long total;
+        private long maxId;
+
+        BatchAppender(VectorSchemaRoot root, ArrowFileWriter writer) {
+            this.root = root;
+            this.writer = writer;
+            this.id = (BigIntVector) root.getVector("id");
+            this.eventName = (VarCharVector) root.getVector("event_name");
+            this.userId = (BigIntVector) root.getVector("user_id");
+            this.articleId = (BigIntVector) root.getVector("article_id");
+            this.sessionId = (VarCharVector) root.getVector("session_id");
+            this.pageUrl = (VarCharVector) root.getVector("page_url");
+            this.pageTitle = (VarCharVector) root.getVector("page_title");
+            this.ipAddress = (VarCharVector) root.getVector("ip_address");
+            this.userAgent = (VarCharVector) root.getVector("user_agent");
+            this.browser = (VarCharVector) root.getVector("browser");
+            this.os = (VarCharVector) root.getVector("os");
+            this.eventTime = (TimeStampMicroVector) root.getVector("event_time");
+            this.properties = (VarCharVector) root.getVector("properties");
+            root.allocateNew();
+        }
+
+        void append(ResultSet rs) throws SQLException {
+            long eventId = rs.getLong("id");
+            id.setSafe(rows, eventId);
+            maxId = Math.max(maxId, eventId);
+            setString(eventName, rs.getString("event_name"));
+            setLong(userId, rs.getLong("user_id"), rs.wasNull());
+            setLong(articleId, rs.getLong("article_id"), rs.wasNull());
+            setString(sessionId, rs.getString("session_id"));
+            setString(pageUrl, rs.getString("page_url"));
+            setString(pageTitle, rs.getString("page_title"));
+            setString(ipAddress, rs.getString("ip_address"));
+            setString(userAgent, rs.getString("user_agent"));
+            setString(browser, rs.getString("browser"));
+            setString(os, rs.getString("os"));
+            LocalDateTime time = rs.getObject("event_time", LocalDateTime.class);
+            eventTime.setSafe(rows, time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000);
+            setString(properties, rs.getString("properties"));
+            if (++rows == batchRows) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows == 0) {
+                return;
+            }
+            root.setRowCount(rows);
+            try {
+                writer.writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            total += rows;
+            rows = 0;
+            root.allocateNew();
+        }
+
+        private void setLong(BigIntVector vector, long value, boolean isNull) {
+            if (isNull) {
+                vector.setNull(rows);
+            } else {
+                vector.setSafe(rows, value);
+            }
+        }
+
+        private void setString(VarCharVector vector, String value) {
+            if (value == null) {
+                vector.setNull(rows);
+            } else {
+                vector.setSafe(rows, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+import com.blog.blogservice.repository.TrackingEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 埋点事件写入器
+ * 请求线程只把事件放入有界队列，由单独的写入线程按批次落库
+ */
+@Component
+@DependsOn("trackingPartitionManager")
+public class TrackingEventIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingEventIngestor.class);
+
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<TrackingBatchListener> listeners = new ArrayList<>();
+
+    @Autowired(required = false)
+    private List<TrackingCommitListener> commitListeners = new ArrayList<>();
+
+    @Value("${blog.tracking.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${blog.tracking.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 队列中没有凑满一批时，最多等待多久就写入（毫秒）
+     */
+    @Value("${blog.tracking.flush-interval:200}")
+    private long flushInterval;
+
+    @Value("${blog.tracking.overflow-policy:DROP_NEWEST}")
+    private OverflowPolicy overflowPolicy;
+
+    /**
+     * BLOCK策略下请求线程的最长等待时间（毫秒）
+     */
+    @Value("${blog.tracking.block-timeout:50}")
+    private long blockTimeout;
+
+    private BlockingQueue<TrackingEvent> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter droppedCounter;
+    private Counter failedCounter;
+    private DistributionSummary batchSizeSummary;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("blog.tracking.queue.depth", queue, BlockingQueue::size)
+                .description("Tracking events waiting to be written")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("blog.tracking.events.dropped")
+                .description("Tracking events dropped because the queue was full")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("blog.tracking.events.failed")
+                .description("Tracking events lost because they failed to write")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("blog.tracking.batch.size")
+                .description("Tracking events written per batch")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("blog.tracking.flush")
+                .description("Time taken to write one batch of tracking events")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::runWriter, "tracking-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 提交事件，队列写满时按配置的策略处理
+     * @param event 埋点事件
+     * @return 事件是否进入队列
+     */
+    public boolean submit(TrackingEvent event) {
+        boolean accepted = switch (overflowPolicy) {
+            case DROP_NEWEST -> queue.offer(event);
+            case DROP_OLDEST -> offerDroppingOldest(event);
+            case BLOCK -> offerWaiting(event);
+        };
+        if (!accepted) {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+
+    private boolean offerDroppingOldest(TrackingEvent event) {
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                droppedCounter.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerWaiting(TrackingEvent event) {
+        try {
+            return queue.offer(event, blockTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runWriter() {
+        List<TrackingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TrackingEvent first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 停机时被中断，继续把队列中剩余的事件写完
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TrackingEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            writeInTransaction(batch);
+            batchSizeSummary.record(batch.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write {} tracking events in one batch, retrying one by one", batch.size(), e);
+            writeOneByOne(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 整批失败时逐条重试，只丢弃写不进去的事件
+     */
+    private void writeOneByOne(List<TrackingEvent> batch) {
+        int written = 0;
+        for (TrackingEvent event : batch) {
+            // 失败的事务里已经分配过ID，重试时按新事件插入
+            event.setId(null);
+            try {
+                writeInTransaction(List.of(event));
+                written++;
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                logger.error("Failed to write tracking event {}", event.getEventName(), e);
+            }
+        }
+        batchSizeSummary.record(written);
+    }
+
+    private void writeInTransaction(List<TrackingEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // 先执行插入，写入失败时监听器还没有收到这批事件
+            trackingEventRepository.saveAllAndFlush(events);
+            for (TrackingBatchListener listener : listeners) {
+                listener.onBatch(events);
+            }
+            // 内存中的统计等提交后再更新，回滚后逐条重试时不会重复计数
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyCommitted(events);
+                }
+            });
+        });
+    }
+
+    /**
+     * 事件已经提交，监听器出错只记录日志，不能再触发重试
+     */
+    private void notifyCommitted(List<TrackingEvent> events) {
+        for (TrackingCommitListener listener : commitListeners) {
+            try {
+                listener.onCommitted(events);
+            } catch (RuntimeException e) {
+                logger.error("Tracking commit listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty()) {
+            logger.warn("{} tracking events were not written before shutdown", queue.size());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.blog.blogservice.tracking;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 埋点事件表分区管理
+ * blog_tracking_event按event_time做月度范围分区：启动时把普通表转换为分区表，
+ * 每天预建未来几个月的分区，并整体删除超过保留期的分区，默认分区中超过保留期的事件同时删除
+ */
+@Component("trackingPartitionManager")
+public class TrackingPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingPartitionManager.class);
+
+    private static final String TABLE = "blog_tracking_event";
+    private static final String LEGACY_TABLE = "blog_tracking_event_legacy";
+    private static final String DEFAULT_PARTITION = "blog_tracking_event_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^blog_tracking_event_(\\d{4})_(\\d{2})$");
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * 多个实例同时启动时只允许一个执行分区维护
+     */
+    private static final long ADVISORY_LOCK_KEY = 0x7472_6b70_6172_7400L;
+
+    /**
+     * 分区表上的索引，创建后自动应用到所有分区
+     */
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_tracking_name_time ON blog_tracking_event (event_name, event_time, id)",
+            "CREATE INDEX IF NOT EXISTS idx_tracking_article_time ON blog_tracking_event (article_id, event_time, id)",
+            "CREATE INDEX IF NOT EXISTS idx_tracking_user_time ON blog_tracking_event (user_id, event_time, id)",
+            "CREATE INDEX IF NOT EXISTS idx_tracking_time ON blog_tracking_event (event_time, id)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 预建的未来月份数
+     */
+    @Value("${blog.tracking.partition.premake-months:3}")
+    private int premakeMonths;
+
+    /**
+     * 保留的月份数（包含当月），0表示不删除
+     */
+    @Value("${blog.tracking.partition.retention-months:12}")
+    private int retentionMonths;
+
+    @PostConstruct
+    public void init() {
+        maintain();
+    }
+
+    /**
+     * 每天预建分区并清理过期分区
+     */
+    @Scheduled(cron = "${blog.tracking.partition.cron:0 0 3 * * *}")
+    public void maintain() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, ADVISORY_LOCK_KEY);
+            YearMonth current = YearMonth.now();
+            if (!isPartitioned()) {
+                convertToPartitioned(current);
+            }
+            createPartitions(current.minusMonths(1), current.plusMonths(premakeMonths));
+            INDEXES.forEach(jdbcTemplate::execute);
+            if (retentionMonths > 0) {
+                dropPartitionsBefore(current.minusMonths(retentionMonths - 1));
+            }
+        });
+    }
+
+    private boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, TABLE);
+        return "p".equals(kind);
+    }
+
+    /**
+     * 把Hibernate创建的普通表换成结构相同的分区表，并迁移已有数据
+     * 迁移期间表被锁定，数据量大时应在低峰期首次部署
+     */
+    private void convertToPartitioned(YearMonth current) {
+        logger.info("Converting {} to a partitioned table", TABLE);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+        // 分区表的主键必须包含分区键
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_TABLE + ", "
+                + "CONSTRAINT blog_tracking_event_pk PRIMARY KEY (id, event_time)) PARTITION BY RANGE (event_time)");
+        // 超出已建分区范围的事件（例如客户端上报的很早的时间）进入默认分区，避免整批写入失败
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+        LocalDate oldest = jdbcTemplate.queryForObject(
+                "SELECT CAST(MIN(event_time) AS date) FROM " + LEGACY_TABLE, LocalDate.class);
+        YearMonth from = oldest != null ? YearMonth.from(oldest) : current.minusMonths(1);
+        createPartitions(from, current.plusMonths(premakeMonths));
+
+        int moved = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + LEGACY_TABLE);
+        jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        logger.info("Moved {} tracking events into monthly partitions", moved);
+    }
+
+    private void createPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    /**
+     * 删除早于指定月份的分区，直接丢弃整张分区表而不是逐行DELETE；
+     * 默认分区中的过期事件（客户端上报的很早的时间）只能逐行删除
+     */
+    private void dropPartitionsBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                logger.info("Dropped expired tracking partition {}", partition);
+            }
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE event_time < ?",
+                oldestKept.atDay(1).atStartOfDay());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired tracking events from {}", deleted, DEFAULT_PARTITION);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(SUFFIX_FORMAT);
+    }
+}
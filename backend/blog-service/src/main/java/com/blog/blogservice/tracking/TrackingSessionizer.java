@@ -0,0 +1,234 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 会话汇总
+ * 写入线程把带会话ID的事件累加到内存中的活跃会话，定时任务把空闲超时的会话写成一行汇总。
+ * 同一会话被多个实例处理或超时后又有新事件时，按会话ID合并到同一行。
+ * 会话ID由客户端提供，只接受有限长度的字母、数字和连字符，活跃会话数超过上限时提前关闭最久没有事件的会话。
+ */
+@Component
+public class TrackingSessionizer implements TrackingCommitListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingSessionizer.class);
+
+    private static final String PAGE_VIEW = "PAGE_VIEW";
+
+    private static final Pattern SESSION_ID_PATTERN = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private static final String UPSERT_SQL = "INSERT INTO blog_tracking_session (session_id, user_id, start_time, end_time, "
+            + "duration_seconds, page_count, event_count, bounce, entry_page, exit_page) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (session_id) DO UPDATE SET "
+            + "user_id = COALESCE(blog_tracking_session.user_id, EXCLUDED.user_id), "
+            + "start_time = LEAST(blog_tracking_session.start_time, EXCLUDED.start_time), "
+            + "end_time = GREATEST(blog_tracking_session.end_time, EXCLUDED.end_time), "
+            + "duration_seconds = CAST(EXTRACT(EPOCH FROM GREATEST(blog_tracking_session.end_time, EXCLUDED.end_time) "
+            + "- LEAST(blog_tracking_session.start_time, EXCLUDED.start_time)) AS bigint), "
+            + "page_count = blog_tracking_session.page_count + EXCLUDED.page_count, "
+            + "event_count = blog_tracking_session.event_count + EXCLUDED.event_count, "
+            + "bounce = blog_tracking_session.page_count + EXCLUDED.page_count <= 1, "
+            + "entry_page = CASE WHEN EXCLUDED.start_time < blog_tracking_session.start_time "
+            + "THEN COALESCE(EXCLUDED.entry_page, blog_tracking_session.entry_page) "
+            + "ELSE COALESCE(blog_tracking_session.entry_page, EXCLUDED.entry_page) END, "
+            + "exit_page = CASE WHEN EXCLUDED.end_time >= blog_tracking_session.end_time "
+            + "THEN COALESCE(EXCLUDED.exit_page, blog_tracking_session.exit_page) "
+            + "ELSE COALESCE(blog_tracking_session.exit_page, EXCLUDED.exit_page) END";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 会话超过该时长没有新事件即视为结束（毫秒）
+     */
+    @Value("${blog.tracking.session.idle-timeout:1800000}")
+    private long idleTimeout;
+
+    /**
+     * 内存中最多保留的活跃会话数
+     */
+    @Value("${blog.tracking.session.max-open:100000}")
+    private int maxOpen;
+
+    /**
+     * 会话ID -> 活跃会话
+     */
+    private final Map<String, OpenSession> sessions = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gaugeMapSize("blog.tracking.sessions.open", Tags.empty(), sessions);
+        // 会话汇总在独立事务中写入，失败时不影响调用方正在写入的事件批次
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 会话ID是否合法：1~64位字母、数字或连字符
+     */
+    public static boolean isValidSessionId(String sessionId) {
+        return sessionId != null && SESSION_ID_PATTERN.matcher(sessionId).matches();
+    }
+
+    @Override
+    public void onCommitted(List<TrackingEvent> events) {
+        long now = System.currentTimeMillis();
+        for (TrackingEvent event : events) {
+            String sessionId = event.getSessionId();
+            if (!isValidSessionId(sessionId)) {
+                continue;
+            }
+            sessions.compute(sessionId, (id, session) -> {
+                if (session == null) {
+                    session = new OpenSession();
+                }
+                session.add(event, now);
+                return session;
+            });
+        }
+        if (sessions.size() > maxOpen) {
+            // 关到上限的九成，避免之后每一批都触发
+            closeOldest(sessions.size() - maxOpen + maxOpen / 10);
+        }
+    }
+
+    /**
+     * 定时关闭空闲超时的会话
+     */
+    @Scheduled(fixedDelayString = "${blog.tracking.session.sweep-interval:60000}")
+    public void closeIdleSessions() {
+        close(System.currentTimeMillis() - idleTimeout);
+    }
+
+    /**
+     * 停机时把所有活跃会话按当前状态写入，重启后的新事件会合并到同一行
+     */
+    @PreDestroy
+    public void closeAll() {
+        close(Long.MAX_VALUE);
+    }
+
+    /**
+     * 提前关闭最久没有事件的会话，最后事件时间相同的会话一起关闭
+     */
+    private void closeOldest(int count) {
+        long[] lastSeen = sessions.values().stream().mapToLong(session -> session.lastSeen).sorted().toArray();
+        if (count <= 0 || lastSeen.length == 0) {
+            return;
+        }
+        int closed = close(lastSeen[Math.min(count, lastSeen.length) - 1] + 1);
+        meterRegistry.counter("blog.tracking.sessions.evicted").increment(closed);
+        logger.warn("Open tracking sessions exceeded {}, closed {} sessions early", maxOpen, closed);
+    }
+
+    private int close(long idleBefore) {
+        // 按会话ID排序后写入，多个实例并发更新同一行时不会互相死锁
+        Map<String, OpenSession> closed = new TreeMap<>();
+        for (String sessionId : sessions.keySet()) {
+            sessions.computeIfPresent(sessionId, (id, session) -> {
+                if (session.lastSeen >= idleBefore) {
+                    return session;
+                }
+                closed.put(id, session);
+                return null;
+            });
+        }
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(closed.size());
+        closed.forEach((sessionId, session) -> batchArgs.add(session.toRow(sessionId)));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs));
+            meterRegistry.counter("blog.tracking.sessions.closed").increment(closed.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to persist {} tracking sessions", closed.size(), e);
+        }
+        return closed.size();
+    }
+
+    /**
+     * 内存中的活跃会话，只在ConcurrentHashMap.compute中修改
+     */
+    private static final class OpenSession {
+
+        private Long userId;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private LocalDateTime entryTime;
+        private String entryPage;
+        private LocalDateTime exitTime;
+        private String exitPage;
+        private int pageCount;
+        private int eventCount;
+
+        /**
+         * 最后一次收到事件的服务端时间，批量上报的事件时间可能早于接收时间，超时按接收时间判断
+         */
+        private long lastSeen;
+
+        void add(TrackingEvent event, long now) {
+            LocalDateTime time = event.getEventTime();
+            if (startTime == null || time.isBefore(startTime)) {
+                startTime = time;
+            }
+            if (endTime == null || time.isAfter(endTime)) {
+                endTime = time;
+            }
+            if (userId == null) {
+                userId = event.getUserId();
+            }
+            if (PAGE_VIEW.equals(event.getEventName())) {
+                pageCount++;
+                if (entryTime == null || time.isBefore(entryTime)) {
+                    entryTime = time;
+                    entryPage = event.getPageUrl();
+                }
+                if (exitTime == null || !time.isBefore(exitTime)) {
+                    exitTime = time;
+                    exitPage = event.getPageUrl();
+                }
+            }
+            eventCount++;
+            lastSeen = now;
+        }
+
+        Object[] toRow(String sessionId) {
+            return new Object[]{sessionId, userId, Timestamp.valueOf(startTime), Timestamp.valueOf(endTime),
+                    Duration.between(startTime, endTime).toSeconds(), pageCount, eventCount, pageCount <= 1,
+                    entryPage, exitPage};
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.blog.blogservice.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页的位置
+ * 由排序字段的值和记录ID组成，编码为URL安全的Base64字符串返回给客户端
+ */
+public class Cursor {
+
+    /**
+     * 降序查询第一页时使用的起始时间，大于任何实际数据
+     */
+    public static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * 升序查询第一页时使用的起始时间，小于任何实际数据
+     */
+    public static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String SEPARATOR = "|";
+
+    private final String value;
+    private final long id;
+
+    private Cursor(String value, long id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * 编码游标
+     * @param value 排序字段的值
+     * @param id 记录ID
+     * @return 游标字符串
+     */
+    public static String encode(Object value, Long id) {
+        String raw = value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标字符串，为空表示第一页
+     * @return 游标位置，第一页返回null
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Cursor(raw.substring(0, index), Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * 时间类型排序字段的起始位置，第一页使用给定的边界值
+     */
+    public static LocalDateTime timeValue(Cursor cursor, LocalDateTime firstPageValue) {
+        if (cursor == null) {
+            return firstPageValue;
+        }
+        try {
+            return LocalDateTime.parse(cursor.value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * 数值类型排序字段的起始位置，第一页使用给定的边界值
+     */
+    public static long longValue(Cursor cursor, long firstPageValue) {
+        if (cursor == null) {
+            return firstPageValue;
+        }
+        try {
+            return Long.parseLong(cursor.value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * 记录ID的起始位置，第一页使用给定的边界值
+     */
+    public static long idValue(Cursor cursor, long firstPageValue) {
+        return cursor == null ? firstPageValue : cursor.id;
+    }
+}
@@ -0,0 +1,134 @@
+package com.blog.blogservice.utils;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 搜索工具类
+ */
+public class SearchUtils {
+
+    /**
+     * ts_headline 输出的高亮起止标记，使用私有区字符，HTML转义后再替换为高亮标签
+     */
+    public static final String HEADLINE_START = "\uE000";
+    public static final String HEADLINE_STOP = "\uE001";
+
+    private static final String MARK_START = "<mark>";
+    private static final String MARK_STOP = "</mark>";
+
+    /**
+     * 判断关键词是否包含中日韩文字
+     * 'simple' 分词把连续的中日韩文字当作一个词，这类关键词需要改用子串匹配
+     */
+    public static boolean containsCjk(String keyword) {
+        return keyword.codePoints().anyMatch(codePoint -> {
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                    || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+        });
+    }
+
+    /**
+     * 按空白拆分关键词，去掉重复的词
+     */
+    public static List<String> splitTerms(String keyword) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : keyword.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * 生成 ILIKE 模式，转义通配符，各个词按输入顺序匹配，如 "Redis 缓存" 生成 %Redis%缓存%
+     */
+    public static String likePattern(List<String> terms) {
+        StringBuilder pattern = new StringBuilder("%");
+        for (String term : terms) {
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (c == '%' || c == '_' || c == '\\') {
+                    pattern.append('\\');
+                }
+                pattern.append(c);
+            }
+            pattern.append('%');
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * 生成关键词的索引片段，与 db/schema.sql 中的 blog_search_grams 一致：
+     * 单个字取这个字，更长的词取每相邻两个字，转小写后以空格分隔
+     */
+    public static String searchGrams(List<String> terms) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String term : terms) {
+            int[] codePoints = term.toLowerCase(Locale.ROOT).codePoints().toArray();
+            if (codePoints.length == 1) {
+                grams.add(new String(codePoints, 0, 1));
+            }
+            for (int i = 0; i + 1 < codePoints.length; i++) {
+                grams.add(new String(codePoints, i, 2));
+            }
+        }
+        return String.join(" ", grams);
+    }
+
+    /**
+     * 把 ts_headline 的结果转成HTML：先转义原文，再把标记字符替换为高亮标签
+     */
+    public static String fromHeadline(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline).replace(HEADLINE_START, MARK_START).replace(HEADLINE_STOP, MARK_STOP);
+    }
+
+    /**
+     * 在文本中标出关键词，不区分大小写，输出已做HTML转义
+     */
+    public static String highlight(String text, List<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        int plainStart = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int length = matchLength(text, i, terms);
+            if (length == 0) {
+                i++;
+                continue;
+            }
+            result.append(HtmlUtils.htmlEscape(text.substring(plainStart, i)))
+                    .append(MARK_START)
+                    .append(HtmlUtils.htmlEscape(text.substring(i, i + length)))
+                    .append(MARK_STOP);
+            i += length;
+            plainStart = i;
+        }
+        return result.append(HtmlUtils.htmlEscape(text.substring(plainStart))).toString();
+    }
+
+    /**
+     * 在指定位置匹配到的最长关键词长度，没有匹配时为0
+     */
+    private static int matchLength(String text, int offset, List<String> terms) {
+        int longest = 0;
+        for (String term : terms) {
+            if (term.length() > longest && text.regionMatches(true, offset, term, 0, term.length())) {
+                longest = term.length();
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,218 @@
+package com.blog.blogservice.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Locale;
+
+/**
+ * User-Agent解析工具类
+ * 只用indexOf匹配固定标记，解析结果按User-Agent字符串缓存，
+ * 实际流量中不同的User-Agent只有几千个，绝大多数调用直接命中缓存
+ */
+public class UserAgentParser {
+
+    private static final int CACHE_SIZE = 10_000;
+
+    /**
+     * 超长的User-Agent一般是伪造或异常请求，不进入缓存
+     */
+    private static final int MAX_CACHED_LENGTH = 512;
+
+    private static final Result UNKNOWN = new Result(null, null);
+
+    private static final Cache<String, Result> CACHE = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    /**
+     * 爬虫标记，按出现频率排列，匹配时忽略大小写
+     */
+    private static final String[][] BOTS = {
+            {"googlebot", "Googlebot"},
+            {"bingbot", "Bingbot"},
+            {"baiduspider", "Baiduspider"},
+            {"bytespider", "Bytespider"},
+            {"sogou web spider", "Sogou Spider"},
+            {"360spider", "360Spider"},
+            {"yandexbot", "YandexBot"},
+            {"duckduckbot", "DuckDuckBot"},
+            {"applebot", "Applebot"},
+            {"facebookexternalhit", "Facebook"},
+            {"twitterbot", "Twitterbot"},
+            {"ahrefsbot", "AhrefsBot"},
+            {"semrushbot", "SemrushBot"},
+            {"headlesschrome", "HeadlessChrome"},
+            {"python-requests", "python-requests"},
+            {"curl/", "curl"},
+            {"wget/", "Wget"},
+    };
+
+    /**
+     * 未知爬虫的通用标记，只匹配紧跟版本号或分隔符的写法，
+     * 避免把型号中带bot的设备（如CUBOT）当作爬虫
+     */
+    private static final String[] BOT_MARKERS = {
+            "bot/", "bot;", "bot)", "spider/", "spider;", "spider)", "crawler/", "crawler;", "crawler)",
+    };
+
+    /**
+     * 浏览器标记，顺序很重要：基于Chromium的浏览器同时带有Chrome/和Safari/标记，
+     * 必须排在Chrome之前，Chrome必须排在Safari之前
+     */
+    private static final String[][] BROWSERS = {
+            {"MicroMessenger/", "WeChat"},
+            {"Edg/", "Edge"},
+            {"EdgA/", "Edge"},
+            {"EdgiOS/", "Edge"},
+            {"Edge/", "Edge"},
+            {"OPR/", "Opera"},
+            {"Opera/", "Opera"},
+            {"SamsungBrowser/", "Samsung Browser"},
+            {"UCBrowser/", "UC Browser"},
+            {"QQBrowser/", "QQ Browser"},
+            {"YaBrowser/", "Yandex Browser"},
+            {"Firefox/", "Firefox"},
+            {"FxiOS/", "Firefox"},
+            {"CriOS/", "Chrome"},
+            {"Chromium/", "Chromium"},
+            {"Chrome/", "Chrome"},
+            {"MSIE ", "IE"},
+    };
+
+    private UserAgentParser() {
+    }
+
+    /**
+     * 解析浏览器和操作系统
+     * @param userAgent User-Agent字符串
+     * @return 解析结果，无法识别的字段为null
+     */
+    public static Result parse(String userAgent) {
+        if (userAgent == null || userAgent.isEmpty()) {
+            return UNKNOWN;
+        }
+        if (userAgent.length() > MAX_CACHED_LENGTH) {
+            return doParse(userAgent);
+        }
+        return CACHE.get(userAgent, UserAgentParser::doParse);
+    }
+
+    static Result doParse(String userAgent) {
+        String bot = parseBot(userAgent);
+        if (bot != null) {
+            return new Result(bot, "Bot");
+        }
+        return new Result(parseBrowser(userAgent), parseOs(userAgent));
+    }
+
+    private static String parseBot(String userAgent) {
+        String lower = userAgent.toLowerCase(Locale.ROOT);
+        for (String[] bot : BOTS) {
+            if (lower.contains(bot[0])) {
+                return bot[1];
+            }
+        }
+        for (String marker : BOT_MARKERS) {
+            if (lower.contains(marker)) {
+                return "Bot";
+            }
+        }
+        return null;
+    }
+
+    private static String parseBrowser(String userAgent) {
+        for (String[] browser : BROWSERS) {
+            int index = userAgent.indexOf(browser[0]);
+            if (index >= 0) {
+                return withVersion(browser[1], userAgent, index + browser[0].length());
+            }
+        }
+        // IE11不再带MSIE，版本号在rv:之后
+        if (userAgent.contains("Trident/")) {
+            int index = userAgent.indexOf("rv:");
+            return index >= 0 ? withVersion("IE", userAgent, index + "rv:".length()) : "IE";
+        }
+        // Safari的版本号在Version/之后，Safari/之后是WebKit版本
+        if (userAgent.contains("Safari/")) {
+            int index = userAgent.indexOf("Version/");
+            return index >= 0 ? withVersion("Safari", userAgent, index + "Version/".length()) : "Safari";
+        }
+        return null;
+    }
+
+    /**
+     * 拼接浏览器名称和 主版本.次版本
+     */
+    private static String withVersion(String name, String userAgent, int start) {
+        int end = start;
+        int dots = 0;
+        while (end < userAgent.length()) {
+            char c = userAgent.charAt(end);
+            if (c == '.') {
+                if (++dots == 2) {
+                    break;
+                }
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+            end++;
+        }
+        if (end == start) {
+            return name;
+        }
+        return name + " " + userAgent.substring(start, end);
+    }
+
+    private static String parseOs(String userAgent) {
+        // iPhone和iPad的User-Agent中带有"like Mac OS X"，必须先于macOS判断
+        if (userAgent.contains("iPad")) {
+            return "iPadOS";
+        }
+        if (userAgent.contains("iPhone") || userAgent.contains("iPod")) {
+            return "iOS";
+        }
+        if (userAgent.contains("Windows")) {
+            return "Windows";
+        }
+        if (userAgent.contains("HarmonyOS") || userAgent.contains("OpenHarmony")) {
+            return "HarmonyOS";
+        }
+        // Android的User-Agent中也带有Linux，必须先于Linux判断
+        if (userAgent.contains("Android")) {
+            return "Android";
+        }
+        if (userAgent.contains("CrOS")) {
+            return "ChromeOS";
+        }
+        if (userAgent.contains("Macintosh") || userAgent.contains("Mac OS X")) {
+            return "Macintosh";
+        }
+        if (userAgent.contains("Linux")) {
+            return "Linux";
+        }
+        return null;
+    }
+
+    /**
+     * 解析结果
+     */
+    public static final class Result {
+
+        private final String browser;
+        private final String os;
+
+        Result(String browser, String os) {
+            this.browser = browser;
+            this.os = os;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public String getOs() {
+            return os;
+        }
+    }
+}
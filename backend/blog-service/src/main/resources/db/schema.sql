@@ -0,0 +1,72 @@
+-- 在Hibernate建表之后执行，所有语句都必须可以重复执行
+
+-- 文章全文检索：标题权重A、摘要权重B、正文权重C，由数据库在写入时自动维护
+ALTER TABLE blog_article ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(summary, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(content, '')), 'C')
+    ) STORED;
+
+-- 只检索已发布的文章
+CREATE INDEX IF NOT EXISTS idx_article_search_vector ON blog_article USING GIN (search_vector) WHERE status = 2;
+
+-- 'simple' 分词把连续的中日韩文字当作一个词，中日韩关键词改用 ILIKE 子串匹配
+-- 文本拆成小写的单字和相邻两字建GIN索引，关键词按同样的规则拆分后用 @> 过滤候选再由 ILIKE 确认，两个字的词也能走索引
+-- 拆分规则必须与 SearchUtils.searchGrams 一致，索引表达式必须与 ArticleRepository.SUBSTRING_MATCH 一致
+CREATE OR REPLACE FUNCTION blog_search_grams(doc text) RETURNS text[]
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS $$
+    SELECT coalesce(array_agg(DISTINCT gram), '{}')
+    FROM (SELECT substr(lower(doc), i, n) AS gram, n
+          FROM generate_series(1, char_length(doc)) AS i, (VALUES (1), (2)) AS lengths(n)) grams
+    WHERE char_length(gram) = n AND gram !~ '\s'
+$$;
+-- 三元组索引对少于三个字的关键词不起作用，由上面的索引替代
+DROP INDEX IF EXISTS idx_article_search_text;
+CREATE INDEX IF NOT EXISTS idx_article_search_grams ON blog_article USING GIN
+    (blog_search_grams(coalesce(title, '') || ' ' || coalesce(summary, '') || ' ' || coalesce(content, ''))) WHERE status = 2;
+
+-- 埋点事件改用序列生成ID后，把序列推进到已有数据之后
+SELECT setval('blog_tracking_event_seq', (SELECT MAX(id) FROM blog_tracking_event))
+WHERE (SELECT last_value FROM blog_tracking_event_seq) < (SELECT COALESCE(MAX(id), 0) FROM blog_tracking_event);
+
+-- 埋点日汇总：汇总表为空时（首次上线）从明细表回填一次，之后由写入线程增量维护
+INSERT INTO blog_tracking_daily_stat (stat_date, event_name, event_count)
+SELECT CAST(event_time AS date), event_name, count(*)
+FROM blog_tracking_event
+WHERE NOT EXISTS (SELECT 1 FROM blog_tracking_daily_stat)
+GROUP BY CAST(event_time AS date), event_name;
+
+-- 分类路径：从顶级分类重新计算一遍，补齐历史数据并修正偏差；父分类不存在的按顶级分类处理
+WITH RECURSIVE tree AS (
+    SELECT id, '/' || id || '/' AS path
+    FROM blog_category c
+    WHERE NOT EXISTS (SELECT 1 FROM blog_category p WHERE p.id = c.parent_id)
+    UNION ALL
+    SELECT c.id, t.path || c.id || '/'
+    FROM blog_category c
+    JOIN tree t ON c.parent_id = t.id
+)
+UPDATE blog_category c SET path = tree.path
+FROM tree
+WHERE c.id = tree.id AND c.path IS DISTINCT FROM tree.path;
+
+-- 按路径前缀查询子树
+CREATE INDEX IF NOT EXISTS idx_category_path ON blog_category (path text_pattern_ops);
+
+-- 标签文章数：每次启动时按文章标签关联表校准，之后由文章写入按增量维护
+UPDATE blog_tag t SET article_count = s.actual
+FROM (SELECT g.id, COUNT(r.article_id) AS actual FROM blog_tag g
+      LEFT JOIN blog_article_tag r ON r.tag_id = g.id GROUP BY g.id) s
+WHERE t.id = s.id AND t.article_count IS DISTINCT FROM s.actual;
+
+-- 文章热度：由后台任务累加阅读、点赞、评论增量并按半衰期衰减，hot_time为空表示尚未计分
+ALTER TABLE blog_article ADD COLUMN IF NOT EXISTS hot_score double precision NOT NULL DEFAULT 0;
+ALTER TABLE blog_article ADD COLUMN IF NOT EXISTS hot_activity double precision NOT NULL DEFAULT 0;
+ALTER TABLE blog_article ADD COLUMN IF NOT EXISTS hot_time timestamp;
+
+-- 热门排行沿索引倒序读取前N篇，不需要排序
+CREATE INDEX IF NOT EXISTS idx_article_hot ON blog_article (hot_score, id) WHERE status = 2;
+
+-- 热门排行不再按阅读量排序；view_count不在索引中时，阅读量落库可以走HOT更新，不必改写全文检索等所有索引
+DROP INDEX IF EXISTS idx_article_status_view;
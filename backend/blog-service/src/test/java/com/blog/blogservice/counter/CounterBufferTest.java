@@ -0,0 +1,62 @@
+package com.blog.blogservice.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 计数缓冲区测试
+ */
+public class CounterBufferTest {
+
+    private static final int THREADS = 4;
+    private static final int INCREMENTS = 200_000;
+
+    @Test
+    public void doesNotLoseIncrementsWhileDrainingIdleEntries() throws Exception {
+        CounterBuffer buffer = new CounterBuffer();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        long drained = 0;
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                writers.add(executor.submit(() -> {
+                    // 少量ID间歇写入，让drain频繁移除空闲的累加器
+                    for (int i = 0; i < INCREMENTS; i++) {
+                        buffer.increment((long) (i % 3));
+                    }
+                }));
+            }
+            Future<?> done = executor.submit(() -> {
+                for (Future<?> writer : writers) {
+                    writer.get();
+                }
+                writing.set(false);
+                return null;
+            });
+            while (writing.get()) {
+                drained += sum(buffer);
+            }
+            done.get();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        drained += sum(buffer);
+        assertEquals((long) THREADS * INCREMENTS, drained);
+    }
+
+    private static long sum(CounterBuffer buffer) {
+        return buffer.drain().values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,104 @@
+package com.blog.blogservice.counter;
+
+import com.blog.blogservice.BlogServiceApplication;
+import com.blog.blogservice.entity.Article;
+import com.blog.blogservice.repository.ArticleRepository;
+import com.blog.blogservice.service.ArticleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 热点文章阅读吞吐量基准测试
+ * 需要本地PostgreSQL，使用 -Dblog.benchmark=true 开启
+ */
+@SpringBootTest(classes = BlogServiceApplication.class)
+@EnabledIfSystemProperty(named = "blog.benchmark", matches = "true")
+public class ViewCountBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final long DURATION_MILLIS = 10_000;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CounterFlusher counterFlusher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 对比逐次读改写与缓冲刷写两种方式下单篇热点文章的读取吞吐量
+     */
+    @Test
+    public void benchmarkHotArticleReads() throws InterruptedException {
+        Article article = new Article();
+        article.setTitle("benchmark-" + System.currentTimeMillis());
+        article.setContent("x".repeat(20_000));
+        article.setUserId(1L);
+        article.setCategoryId(1L);
+        article.setStatus(2);
+        Long id = articleService.createArticle(article).getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        try {
+            // 改造前：每次阅读加载整行并在独立事务中写回
+            long legacyOps = run(() -> {
+                articleService.getArticleById(id);
+                transactionTemplate.executeWithoutResult(status -> {
+                    Article hot = articleRepository.findById(id).orElseThrow();
+                    hot.setViewCount(hot.getViewCount() + 1);
+                    articleRepository.save(hot);
+                });
+            });
+            long viewCountBefore = articleRepository.findById(id).orElseThrow().getViewCount();
+
+            // 改造后：阅读量写入内存缓冲区，定时批量落库
+            long bufferedOps = run(() -> {
+                articleService.getArticleById(id);
+                articleService.updateViewCount(id);
+            });
+            counterFlusher.flush();
+
+            System.out.printf("热点文章读取吞吐量（%d 线程）：改造前 %.0f ops/s，改造后 %.0f ops/s%n",
+                    THREADS, legacyOps * 1000.0 / DURATION_MILLIS, bufferedOps * 1000.0 / DURATION_MILLIS);
+
+            // 缓冲模式下不能丢失任何一次阅读
+            long viewCountAfter = articleRepository.findById(id).orElseThrow().getViewCount();
+            assertEquals(viewCountBefore + bufferedOps, viewCountAfter);
+        } finally {
+            articleRepository.deleteById(id);
+        }
+    }
+
+    private long run(Runnable operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    operation.run();
+                    ops.increment();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return ops.sum();
+    }
+}
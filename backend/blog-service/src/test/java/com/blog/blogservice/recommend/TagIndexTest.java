@@ -0,0 +1,46 @@
+package com.blog.blogservice.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 标签索引测试
+ */
+public class TagIndexTest {
+
+    @Test
+    public void ranksArticlesSharingRarerTagsHigher() {
+        TagIndex index = new TagIndex();
+        index.update(1L, new long[]{10, 20});
+        index.update(2L, new long[]{10});
+        index.update(3L, new long[]{10});
+        index.update(4L, new long[]{20});
+
+        // 标签20只有两篇文章使用，权重高于三篇文章使用的标签10；得分相同时较新的文章在前
+        assertEquals(List.of(4L, 3L, 2L), new ArrayList<>(index.relatedArticles(1L, 10).keySet()));
+        assertEquals(List.of(4L), new ArrayList<>(index.relatedArticles(1L, 1).keySet()));
+        assertEquals(Map.of(), index.relatedArticles(99L, 10));
+    }
+
+    @Test
+    public void maintainsCooccurrenceIncrementally() {
+        TagIndex index = new TagIndex();
+        index.update(1L, new long[]{10, 20, 30});
+        index.update(2L, new long[]{10, 20});
+        assertEquals(Map.of(20L, 2, 30L, 1), index.relatedTags(10L, 10));
+
+        index.update(2L, new long[]{10});
+        assertEquals(Map.of(20L, 1, 30L, 1), index.relatedTags(10L, 10));
+        assertEquals(List.of(1L), new ArrayList<>(index.relatedArticles(2L, 10).keySet()));
+
+        // 文章下架后从索引中移除
+        index.update(1L, new long[0]);
+        assertEquals(Map.of(), index.relatedTags(10L, 10));
+        assertEquals(Map.of(), index.relatedArticles(2L, 10));
+    }
+}
@@ -0,0 +1,123 @@
+package com.blog.blogservice.repository;
+
+import com.blog.blogservice.BlogServiceApplication;
+import com.blog.blogservice.entity.TrackingEvent;
+import com.blog.blogservice.utils.Cursor;
+import com.blog.blogservice.utils.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 深分页延迟基准测试
+ * 需要本地PostgreSQL，使用 -Dblog.benchmark=true 开启
+ */
+@SpringBootTest(classes = BlogServiceApplication.class)
+@EnabledIfSystemProperty(named = "blog.benchmark", matches = "true")
+public class DeepPageBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int[] DEPTHS = {1, 100, 1_000, 5_000, 9_999};
+    private static final int ROUNDS = 20;
+
+    /**
+     * 事件ID没有列默认值，与实体共用同一个序列
+     */
+    private static final String INSERT_SQL = "INSERT INTO blog_tracking_event (id, event_name, event_time, user_id) "
+            + "VALUES (nextval('blog_tracking_event_seq'), ?, ?, ?)";
+
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 对比偏移分页与游标分页在不同页深度下的查询延迟
+     */
+    @Test
+    public void benchmarkDeepPages() {
+        String eventName = "benchmark-" + System.currentTimeMillis();
+        insertEvents(eventName);
+        Sort sort = Sort.by(Sort.Direction.DESC, "eventTime", "id");
+
+        try {
+            // 先按游标走一遍，记下每个深度的起始游标
+            String[] cursors = new String[DEPTHS.length];
+            String cursor = null;
+            int page = 0;
+            for (int i = 0; i < DEPTHS.length; i++) {
+                while (page < DEPTHS[i]) {
+                    cursor = nextPage(eventName, cursor).getNextCursor();
+                    page++;
+                }
+                cursors[i] = cursor;
+            }
+
+            for (int i = 0; i < DEPTHS.length; i++) {
+                int depth = DEPTHS[i];
+                Page<TrackingEvent> offsetPage = trackingEventRepository.findByEventName(eventName, PageRequest.of(depth, PAGE_SIZE, sort));
+                CursorPage<TrackingEvent> cursorPage = nextPage(eventName, cursors[i]);
+                // 两种方式取到的数据必须一致
+                assertEquals(ids(offsetPage.getContent()), ids(cursorPage.getContent()));
+
+                long offsetNanos = 0;
+                long cursorNanos = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    trackingEventRepository.findByEventName(eventName, PageRequest.of(depth, PAGE_SIZE, sort));
+                    offsetNanos += System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    nextPage(eventName, cursors[i]);
+                    cursorNanos += System.nanoTime() - start;
+                }
+                System.out.printf("第 %d 页：偏移分页 %.2f ms，游标分页 %.2f ms%n",
+                        depth, offsetNanos / 1e6 / ROUNDS, cursorNanos / 1e6 / ROUNDS);
+            }
+        } finally {
+            jdbcTemplate.update("DELETE FROM blog_tracking_event WHERE event_name = ?", eventName);
+        }
+    }
+
+    private CursorPage<TrackingEvent> nextPage(String eventName, String cursor) {
+        Cursor position = Cursor.decode(cursor);
+        List<TrackingEvent> rows = trackingEventRepository.findByEventNameAfter(eventName,
+                Cursor.timeValue(position, Cursor.MAX_TIME), Cursor.idValue(position, Long.MAX_VALUE), CursorPage.limit(PAGE_SIZE));
+        return CursorPage.of(rows, PAGE_SIZE, event -> Cursor.encode(event.getEventTime(), event.getId()));
+    }
+
+    private void insertEvents(String eventName) {
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            // 每秒多条事件，保证排序字段存在重复值
+            batch.add(new Object[]{eventName, Timestamp.valueOf(base.minusSeconds(i / 4)), (long) (i % 1000)});
+            if (batch.size() == 5_000) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        jdbcTemplate.execute("ANALYZE blog_tracking_event");
+    }
+
+    private static List<Long> ids(List<TrackingEvent> events) {
+        return events.stream().map(TrackingEvent::getId).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.blog.blogservice.service;
+
+import com.blog.blogservice.BlogServiceApplication;
+import com.blog.blogservice.dto.ArticleSearchResult;
+import com.blog.blogservice.entity.Article;
+import com.blog.blogservice.repository.ArticleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 文章搜索测试
+ * 需要本地PostgreSQL，使用 -Dblog.database=true 开启
+ */
+@SpringBootTest(classes = BlogServiceApplication.class)
+@EnabledIfSystemProperty(named = "blog.database", matches = "true")
+public class ArticleSearchTest {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Test
+    public void findsChineseKeywordInsideLongerWord() {
+        String marker = "search" + System.nanoTime();
+        Article article = new Article();
+        article.setTitle("Redis缓存设计<script>" + marker);
+        article.setSummary("多级缓存的一致性");
+        article.setContent("本文介绍缓存穿透、缓存击穿和缓存雪崩");
+        article.setUserId(1L);
+        article.setCategoryId(1L);
+        article.setStatus(2);
+        article.setPublishedTime(LocalDateTime.now());
+        article = articleRepository.save(article);
+
+        try {
+            Page<ArticleSearchResult> results = articleService.searchArticles("缓存 " + marker, PageRequest.of(0, 10));
+            assertEquals(1, results.getTotalElements());
+            ArticleSearchResult result = results.getContent().get(0);
+            assertEquals(article.getId(), result.getArticle().getId());
+            assertEquals("Redis<mark>缓存</mark>设计&lt;script&gt;<mark>" + marker + "</mark>", result.getTitleHighlight());
+            assertTrue(result.getContentHighlight().contains("<mark>缓存</mark>穿透"));
+        } finally {
+            articleRepository.deleteById(article.getId());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.blog.blogservice.tracking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 实时活动推送测试
+ */
+public class LiveActivityHubTest {
+
+    @Test
+    public void publishDoesNotWaitForBlockedSend() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LiveActivityHub hub = new LiveActivityHub();
+        ReflectionTestUtils.setField(hub, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(hub, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(hub, "subscriberBuffer", 1);
+        ReflectionTestUtils.setField(hub, "topSize", 10);
+        ReflectionTestUtils.setField(hub, "senderThreads", 1);
+        hub.init();
+
+        BlockingEmitter slow = new BlockingEmitter();
+        hub.subscribe();
+        addSubscriber(hub, slow);
+
+        // 第一次推送占住发送线程，第二次进入队列，第三次队列已满
+        hub.publish();
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            hub.publish();
+            hub.publish();
+        });
+        assertEquals(1.0, meterRegistry.counter("blog.live.subscribers.dropped").count());
+
+        // 发送返回后由发送任务自己断开
+        slow.release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        hub.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addSubscriber(LiveActivityHub hub, SseEmitter emitter) throws Exception {
+        Class<?> type = Class.forName(LiveActivityHub.class.getName() + "$Subscriber");
+        Constructor<?> constructor = type.getDeclaredConstructor(SseEmitter.class, int.class);
+        constructor.setAccessible(true);
+        List<Object> subscribers = (List<Object>) ReflectionTestUtils.getField(hub, "subscribers");
+        subscribers.add(constructor.newInstance(emitter, 1));
+    }
+
+    /**
+     * 模拟写不出去的客户端，send持有锁直到放行
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
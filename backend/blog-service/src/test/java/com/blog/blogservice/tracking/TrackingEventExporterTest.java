@@ -0,0 +1,186 @@
+package com.blog.blogservice.tracking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 埋点事件导出测试
+ * 需要 --add-opens=java.base/java.nio=ALL-UNNAMED，已在surefire的argLine中配置
+ */
+public class TrackingEventExporterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @TempDir
+    Path exportDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    public void writesOneDayReadableByArrowFileReader() throws Exception {
+        LocalDateTime time = DAY.atTime(8, 30, 15, 123_456_000);
+        ResultSet first = row(1L, "PAGE_VIEW", 7L, "Redis缓存设计", time);
+        ResultSet second = row(2L, "ARTICLE_READ", null, null, time.plusSeconds(1));
+        ResultSet third = row(3L, "PAGE_VIEW", 8L, "首页", time.plusSeconds(2));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet rs : List.of(first, second, third)) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertEquals(3, newExporter().export(DAY));
+
+        Path file = exportDir.resolve("event_date=" + DAY).resolve("events.arrow");
+        List<Long> ids = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        int batches = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator, CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                batches++;
+                BigIntVector id = (BigIntVector) root.getVector("id");
+                BigIntVector userId = (BigIntVector) root.getVector("user_id");
+                VarCharVector pageTitle = (VarCharVector) root.getVector("page_title");
+                TimeStampMicroVector eventTime = (TimeStampMicroVector) root.getVector("event_time");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    ids.add(id.get(i));
+                    userIds.add(userId.getObject(i));
+                    titles.add(pageTitle.getObject(i) == null ? null : pageTitle.getObject(i).toString());
+                    times.add(eventTime.get(i));
+                }
+            }
+            assertEquals(DAY.toString(), reader.getMetaData().get("event_date"));
+            assertEquals("3", reader.getMetaData().get("row_count"));
+            assertEquals("3", reader.getMetaData().get("max_id"));
+        }
+
+        // 每批两行，三行分成两个批次
+        assertEquals(2, batches);
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        assertEquals(Arrays.asList(7L, null, 8L), userIds);
+        assertEquals(Arrays.asList("Redis缓存设计", null, "首页"), titles);
+        assertEquals(time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + 123_456, times.get(0));
+        assertFalse(Files.exists(file.resolveSibling("events.arrow.tmp")));
+    }
+
+    @Test
+    public void removesTempFileWhenExportFails() throws IOException {
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertThrows(IllegalStateException.class, () -> newExporter().export(DAY));
+
+        Path dayDir = exportDir.resolve("event_date=" + DAY);
+        assertTrue(Files.isDirectory(dayDir));
+        try (Stream<Path> files = Files.list(dayDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void reexportsDaysThatChangedAfterExport() throws SQLException {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        ResultSet event = row(10L, "PAGE_VIEW", 7L, "首页", yesterday.atTime(23, 59));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(event);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        TrackingEventExporter exporter = newExporter();
+        ReflectionTestUtils.setField(exporter, "lookbackDays", 1);
+
+        // 没有文件时导出
+        exporter.exportStaleDays();
+        // 库中的行数和最大ID与文件一致，不重新导出
+        whenDayStats(1L, 10L);
+        exporter.exportStaleDays();
+        // 之后又写入了延迟上报的事件
+        whenDayStats(2L, 11L);
+        exporter.exportStaleDays();
+
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void whenDayStats(long rowCount, long maxId) throws SQLException {
+        ResultSet stats = mock(ResultSet.class);
+        when(stats.getLong(1)).thenReturn(rowCount);
+        when(stats.getLong(2)).thenReturn(maxId);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(), any())).thenAnswer(invocation ->
+                invocation.<RowMapper<Object>>getArgument(1).mapRow(stats, 0));
+    }
+
+    private TrackingEventExporter newExporter() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TrackingEventExporter exporter = new TrackingEventExporter();
+        ReflectionTestUtils.setField(exporter, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(exporter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(exporter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(exporter, "exportDir", exportDir.toString());
+        ReflectionTestUtils.setField(exporter, "fetchSize", 100);
+        ReflectionTestUtils.setField(exporter, "batchRows", 2);
+        return exporter;
+    }
+
+    private static ResultSet row(long id, String eventName, Long userId, String pageTitle, LocalDateTime time)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("event_name")).thenReturn(eventName);
+        when(rs.getLong("user_id")).thenReturn(userId == null ? 0L : userId);
+        when(rs.getString("page_title")).thenReturn(pageTitle);
+        when(rs.getObject("event_time", LocalDateTime.class)).thenReturn(time);
+        // 依次对应 user_id 和 article_id 的 wasNull
+        when(rs.wasNull()).thenReturn(userId == null, true);
+        return rs;
+    }
+}
@@ -0,0 +1,91 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+import com.blog.blogservice.repository.TrackingEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 埋点写入器测试
+ */
+public class TrackingEventIngestorTest {
+
+    @Test
+    public void retriedEventsReachCommitListenersOnce() throws InterruptedException {
+        // 数据库监听器遇到坏事件时抛异常，整批回滚后逐条重试
+        TrackingBatchListener failingListener = events -> {
+            if (events.stream().anyMatch(event -> "BAD".equals(event.getEventName()))) {
+                throw new IllegalStateException("upsert failed");
+            }
+        };
+        Map<String, Integer> committed = new TreeMap<>();
+        TrackingCommitListener countingListener = events ->
+                events.forEach(event -> committed.merge(event.getEventName(), 1, Integer::sum));
+
+        TrackingEventIngestor ingestor = new TrackingEventIngestor();
+        ReflectionTestUtils.setField(ingestor, "trackingEventRepository", mock(TrackingEventRepository.class));
+        ReflectionTestUtils.setField(ingestor, "transactionManager", new StubTransactionManager());
+        ReflectionTestUtils.setField(ingestor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestor, "listeners", List.of(failingListener));
+        ReflectionTestUtils.setField(ingestor, "commitListeners", List.of(countingListener));
+        ReflectionTestUtils.setField(ingestor, "queueCapacity", 100);
+        ReflectionTestUtils.setField(ingestor, "batchSize", 100);
+        ReflectionTestUtils.setField(ingestor, "flushInterval", 10L);
+        ReflectionTestUtils.setField(ingestor, "overflowPolicy", OverflowPolicy.DROP_NEWEST);
+        ingestor.start();
+
+        List<TrackingEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event("ARTICLE_READ"));
+        }
+        events.add(5, event("BAD"));
+        events.forEach(ingestor::submit);
+        ingestor.shutdown();
+
+        assertEquals(Map.of("ARTICLE_READ", 10), committed);
+    }
+
+    private static TrackingEvent event(String eventName) {
+        TrackingEvent event = new TrackingEvent();
+        event.setEventName(eventName);
+        event.setArticleId(1L);
+        event.setEventTime(LocalDateTime.now());
+        return event;
+    }
+
+    /**
+     * 不连数据库的事务管理器，照常触发事务同步回调
+     */
+    private static final class StubTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
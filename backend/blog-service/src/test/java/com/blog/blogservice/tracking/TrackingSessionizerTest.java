@@ -0,0 +1,82 @@
+package com.blog.blogservice.tracking;
+
+import com.blog.blogservice.entity.TrackingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 会话汇总测试
+ */
+public class TrackingSessionizerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void rejectsUnboundedSessionIds() {
+        assertTrue(TrackingSessionizer.isValidSessionId("3f2a9c1e-7b4d-4e8a-9f00-1c2d3e4f5a6b"));
+        assertFalse(TrackingSessionizer.isValidSessionId(""));
+        assertFalse(TrackingSessionizer.isValidSessionId("a".repeat(65)));
+        assertFalse(TrackingSessionizer.isValidSessionId("id with spaces"));
+        assertFalse(TrackingSessionizer.isValidSessionId(null));
+
+        TrackingSessionizer sessionizer = newSessionizer(10);
+        sessionizer.onCommitted(List.of(event("../../etc"), event("a".repeat(65)), event("valid-1")));
+        assertEquals(1.0, openSessions());
+    }
+
+    @Test
+    public void closesSessionsEarlyWhenOverCapacity() {
+        TrackingSessionizer sessionizer = newSessionizer(100);
+        // 一次请求带上大量随机会话ID
+        List<TrackingEvent> flood = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            flood.add(event(UUID.randomUUID().toString()));
+        }
+        sessionizer.onCommitted(flood);
+        assertTrue(openSessions() <= 100);
+        assertTrue(meterRegistry.counter("blog.tracking.sessions.evicted").count() >= 900);
+    }
+
+    private TrackingSessionizer newSessionizer(int maxOpen) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TrackingSessionizer sessionizer = new TrackingSessionizer();
+        ReflectionTestUtils.setField(sessionizer, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(sessionizer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(sessionizer, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(sessionizer, "idleTimeout", 1_800_000L);
+        ReflectionTestUtils.setField(sessionizer, "maxOpen", maxOpen);
+        sessionizer.init();
+        return sessionizer;
+    }
+
+    private double openSessions() {
+        return meterRegistry.get("blog.tracking.sessions.open").gauge().value();
+    }
+
+    private static TrackingEvent event(String sessionId) {
+        TrackingEvent event = new TrackingEvent();
+        event.setEventName("PAGE_VIEW");
+        event.setSessionId(sessionId);
+        event.setPageUrl("/");
+        event.setEventTime(LocalDateTime.now());
+        return event;
+    }
+}
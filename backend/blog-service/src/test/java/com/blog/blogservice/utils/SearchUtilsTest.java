@@ -0,0 +1,41 @@
+package com.blog.blogservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 搜索工具类测试
+ */
+public class SearchUtilsTest {
+
+    @Test
+    public void usesSubstringMatchForChineseKeywords() {
+        assertTrue(SearchUtils.containsCjk("缓存"));
+        assertTrue(SearchUtils.containsCjk("Redis 缓存"));
+        assertFalse(SearchUtils.containsCjk("redis cache"));
+
+        assertEquals(List.of("Redis", "缓存"), SearchUtils.splitTerms("  Redis   缓存 Redis "));
+        assertEquals("%Redis%缓存%", SearchUtils.likePattern(SearchUtils.splitTerms("Redis 缓存")));
+        // 关键词中的通配符按普通字符匹配
+        assertEquals("%100\\%\\_a\\\\b%", SearchUtils.likePattern(List.of("100%_a\\b")));
+
+        // 两个字的词也能生成索引片段
+        assertEquals("缓存", SearchUtils.searchGrams(List.of("缓存")));
+        assertEquals("re ed di is 缓 多级 级缓 缓存", SearchUtils.searchGrams(List.of("Redis", "缓", "多级缓存")));
+    }
+
+    @Test
+    public void escapesHtmlBeforeHighlighting() {
+        assertEquals("Redis<mark>缓存</mark>设计&lt;script&gt;",
+                SearchUtils.highlight("Redis缓存设计<script>", List.of("缓存")));
+        assertEquals("<mark>redis</mark> 与 <mark>Redis</mark><mark>缓存</mark>",
+                SearchUtils.highlight("redis 与 Redis缓存", List.of("Redis", "缓存")));
+        assertEquals("&lt;b&gt;<mark>cache</mark>&lt;/b&gt;",
+                SearchUtils.fromHeadline("<b>" + SearchUtils.HEADLINE_START + "cache" + SearchUtils.HEADLINE_STOP + "</b>"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.blog.blogservice.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * User-Agent解析基准测试
+ * 对比原来的两个正则与缓存解析器的每次调用耗时和内存分配，使用 -Dblog.benchmark=true 开启
+ */
+@EnabledIfSystemProperty(named = "blog.benchmark", matches = "true")
+public class UserAgentParserBenchmarkTest {
+
+    private static final Pattern BROWSER_PATTERN = Pattern.compile("(Firefox|Chrome|Safari|Edge|Opera)/(\\d+\\.\\d+)");
+    private static final Pattern OS_PATTERN = Pattern.compile("(Windows|Macintosh|Linux|Android|iOS)");
+
+    private static final int WARMUP_ITERATIONS = 2_000_000;
+    private static final int MEASURED_ITERATIONS = 5_000_000;
+
+    /**
+     * 防止JIT把结果当作无用代码消除
+     */
+    private static long sink;
+
+    @Test
+    public void benchmarkParsers() throws IOException {
+        String[] corpus = loadCorpus();
+
+        measure("regex", corpus, UserAgentParserBenchmarkTest::parseWithRegex);
+        measure("cached", corpus, userAgent -> {
+            UserAgentParser.Result result = UserAgentParser.parse(userAgent);
+            return Objects.hashCode(result.getBrowser()) + Objects.hashCode(result.getOs());
+        });
+        assertNotEquals(0, sink);
+    }
+
+    private static void measure(String name, String[] corpus, Parser parser) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += parser.parse(corpus[i % corpus.length]);
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += parser.parse(corpus[i % corpus.length]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-8s %8.1f ns/op %8.1f B/op%n", name,
+                (double) elapsed / MEASURED_ITERATIONS, (double) allocated / MEASURED_ITERATIONS);
+    }
+
+    /**
+     * 改造前TrackingServiceImpl中的解析方式
+     */
+    private static int parseWithRegex(String userAgent) {
+        String browser = null;
+        String os = null;
+        Matcher browserMatcher = BROWSER_PATTERN.matcher(userAgent);
+        if (browserMatcher.find()) {
+            browser = browserMatcher.group(1) + " " + browserMatcher.group(2);
+        }
+        Matcher osMatcher = OS_PATTERN.matcher(userAgent);
+        if (osMatcher.find()) {
+            os = osMatcher.group(1);
+        }
+        return Objects.hashCode(browser) + Objects.hashCode(os);
+    }
+
+    private static String[] loadCorpus() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(UserAgentParserBenchmarkTest.class.getResourceAsStream("/user-agents.txt")),
+                StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().filter(line -> !line.isBlank()).toList();
+            return lines.toArray(new String[0]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        int parse(String userAgent);
+    }
+}
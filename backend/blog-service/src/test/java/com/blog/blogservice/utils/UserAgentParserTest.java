@@ -0,0 +1,87 @@
+package com.blog.blogservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * User-Agent解析测试
+ */
+public class UserAgentParserTest {
+
+    @Test
+    public void parsesChromiumBasedBrowsersBeforeChrome() {
+        assertParsed("Edge 120.0", "Windows",
+                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36 Edg/120.0.2210.91");
+        assertParsed("Opera 105.0", "Windows",
+                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36 OPR/105.0.0.0");
+        assertParsed("Samsung Browser 23.0", "Android",
+                "Mozilla/5.0 (Linux; Android 13; SM-S918B) AppleWebKit/537.36 (KHTML, like Gecko) SamsungBrowser/23.0 Chrome/115.0.0.0 Mobile Safari/537.36");
+        assertParsed("Chrome 120.0", "Macintosh",
+                "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+    }
+
+    @Test
+    public void parsesSafariVersionFromVersionToken() {
+        assertParsed("Safari 17.2", "Macintosh",
+                "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.2 Safari/605.1.15");
+    }
+
+    @Test
+    public void parsesIe11VersionFromRvToken() {
+        assertParsed("IE 11.0", "Windows",
+                "Mozilla/5.0 (Windows NT 10.0; WOW64; Trident/7.0; rv:11.0) like Gecko");
+    }
+
+    @Test
+    public void distinguishesIosIpadosAndAndroid() {
+        assertParsed("Safari 17.2", "iOS",
+                "Mozilla/5.0 (iPhone; CPU iPhone OS 17_2 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.2 Mobile/15E148 Safari/604.1");
+        assertParsed("Chrome 120.0", "iOS",
+                "Mozilla/5.0 (iPhone; CPU iPhone OS 17_2 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) CriOS/120.0.6099.119 Mobile/15E148 Safari/604.1");
+        assertParsed("Safari 17.2", "iPadOS",
+                "Mozilla/5.0 (iPad; CPU OS 17_2 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.2 Mobile/15E148 Safari/604.1");
+        assertParsed("Chrome 120.0", "Android",
+                "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.6099.144 Mobile Safari/537.36");
+    }
+
+    @Test
+    public void detectsBots() {
+        assertParsed("Googlebot", "Bot",
+                "Mozilla/5.0 (Linux; Android 6.0.1; Nexus 5X Build/MMB29P) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.6099.109 Mobile Safari/537.36 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)");
+        assertParsed("Baiduspider", "Bot",
+                "Mozilla/5.0 (compatible; Baiduspider/2.0; +http://www.baidu.com/search/spider.html)");
+        assertParsed("curl", "Bot", "curl/8.4.0");
+        assertParsed("Bot", "Bot", "Mozilla/5.0 (compatible; MJ12bot/v1.4.8; http://mj12bot.com/)");
+    }
+
+    @Test
+    public void keepsDevicesWithBotInTheModelName() {
+        assertParsed("Chrome 120.0", "Android",
+                "Mozilla/5.0 (Linux; Android 12; CUBOT KINGKONG 7 Build/SP1A.210812.016) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.6099.144 Mobile Safari/537.36");
+        assertParsed("Chrome 120.0", "Android",
+                "Mozilla/5.0 (Linux; Android 13; CUBOT_X70) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.6099.144 Mobile Safari/537.36");
+    }
+
+    @Test
+    public void handlesMissingAndUnknownUserAgents() {
+        UserAgentParser.Result result = UserAgentParser.parse(null);
+        assertNull(result.getBrowser());
+        assertNull(result.getOs());
+        assertParsed(null, null, "SomeClient");
+    }
+
+    @Test
+    public void cachesResultsPerUserAgent() {
+        String userAgent = "Mozilla/5.0 (X11; Linux x86_64; rv:121.0) Gecko/20100101 Firefox/121.0";
+        assertSame(UserAgentParser.parse(userAgent), UserAgentParser.parse(new String(userAgent)));
+    }
+
+    private static void assertParsed(String browser, String os, String userAgent) {
+        UserAgentParser.Result result = UserAgentParser.parse(userAgent);
+        assertEquals(browser, result.getBrowser());
+        assertEquals(os, result.getOs());
+    }
+}